@@ -0,0 +1,418 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+
+/**
+ * Compact binary form of the changelog cache. It holds exactly what {@link ChangeLog#loadChangedSets} reads from
+ * the xml document, which stays the interchange format.
+ * <p>
+ * Layout: the magic bytes <code>MCLB</code> and a format version, a table of the author names, file paths, versions
+ * and non numeric revisions, then the change log sets. Counts, table indexes, numeric revisions and dates are
+ * varints, dates are stored as the difference to the previous one.
+ * </p>
+ */
+public final class BinaryChangeLog {
+    private static final byte[] MAGIC = {'M', 'C', 'L', 'B'};
+
+    static final int VERSION = 1;
+
+    private static final int SET_START_DATE = 1;
+
+    private static final int SET_END_DATE = 2;
+
+    private static final int SET_START_VERSION = 4;
+
+    private static final int SET_END_VERSION = 8;
+
+    private static final int ENTRY_DATE = 1;
+
+    private static final int ENTRY_AUTHOR = 2;
+
+    private static final int ENTRY_COMMENT = 4;
+
+    // the longest decimal revision that always fits a long
+    private static final int MAX_NUMERIC_REVISION_LENGTH = 18;
+
+    private BinaryChangeLog() {
+        // utility class
+    }
+
+    /**
+     * writes the change log sets in binary form
+     *
+     * @param changeLogSets the change log sets to write
+     * @param stream        the stream to write to, it is not closed
+     * @throws IOException when an error occurred while writing
+     */
+    public static void write(List<ChangeLogSet> changeLogSets, OutputStream stream) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+
+        for (ChangeLogSet set : changeLogSets) {
+            intern(versionName(set.getStartVersion()), strings, table);
+            intern(versionName(set.getEndVersion()), strings, table);
+            for (ChangeSet entry : set.getChangeSets()) {
+                intern(entry.getAuthor(), strings, table);
+                for (ChangeFile file : entry.getFiles()) {
+                    intern(file.getName(), strings, table);
+                    if (!isNumeric(file.getRevision())) {
+                        intern(file.getRevision(), strings, table);
+                    }
+                }
+            }
+        }
+
+        Output out = new Output(stream);
+
+        stream.write(MAGIC);
+        out.writeVarint(VERSION);
+
+        out.writeVarint(table.size());
+        for (String string : table) {
+            out.writeString(string);
+        }
+
+        out.writeVarint(changeLogSets.size());
+        long lastDate = 0;
+        for (ChangeLogSet set : changeLogSets) {
+            int flags = (set.getStartDate() != null ? SET_START_DATE : 0)
+                    | (set.getEndDate() != null ? SET_END_DATE : 0)
+                    | (set.getStartVersion() != null ? SET_START_VERSION : 0)
+                    | (set.getEndVersion() != null ? SET_END_VERSION : 0);
+            out.writeVarint(flags);
+            if (set.getStartDate() != null) {
+                out.writeSignedVarint(set.getStartDate().getTime());
+            }
+            if (set.getEndDate() != null) {
+                out.writeSignedVarint(set.getEndDate().getTime());
+            }
+            if (set.getStartVersion() != null) {
+                out.writeVarint(strings.get(versionName(set.getStartVersion())));
+            }
+            if (set.getEndVersion() != null) {
+                out.writeVarint(strings.get(versionName(set.getEndVersion())));
+            }
+
+            out.writeVarint(set.getChangeSets().size());
+            for (ChangeSet entry : set.getChangeSets()) {
+                flags = (entry.getDate() != null ? ENTRY_DATE : 0)
+                        | (entry.getAuthor() != null ? ENTRY_AUTHOR : 0)
+                        | (entry.getComment() != null ? ENTRY_COMMENT : 0);
+                out.writeVarint(flags);
+                if (entry.getDate() != null) {
+                    out.writeSignedVarint(entry.getDate().getTime() - lastDate);
+                    lastDate = entry.getDate().getTime();
+                }
+                if (entry.getAuthor() != null) {
+                    out.writeVarint(strings.get(entry.getAuthor()));
+                }
+                if (entry.getComment() != null) {
+                    out.writeString(entry.getComment());
+                }
+
+                List<ChangeFile> files = entry.getFiles();
+                out.writeVarint(files.size());
+                for (ChangeFile file : files) {
+                    out.writeVarint(strings.get(file.getName()));
+                    writeRevision(file.getRevision(), strings, out);
+                }
+            }
+        }
+
+        out.flush();
+    }
+
+    /**
+     * reads change log sets written by {@link #write(List, OutputStream)}
+     *
+     * @param data the complete binary document
+     * @return the change log sets
+     * @throws IOException when the data is not a binary changelog of the supported version, or is truncated or corrupt
+     */
+    public static List<ChangeLogSet> read(byte[] data) throws IOException {
+        Input in = new Input(data);
+
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) {
+                throw new IOException("Not a binary changelog.");
+            }
+        }
+        int version = in.readVarint();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary changelog version " + version + ".");
+        }
+
+        String[] table = new String[in.readCount()];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = in.readString();
+        }
+
+        int setCount = in.readCount();
+        List<ChangeLogSet> changeLogSets = new ArrayList<>(setCount);
+        long lastDate = 0;
+        for (int s = 0; s < setCount; s++) {
+            int flags = in.readVarint();
+            Date startDate = (flags & SET_START_DATE) != 0 ? new Date(in.readSignedVarint()) : null;
+            Date endDate = (flags & SET_END_DATE) != 0 ? new Date(in.readSignedVarint()) : null;
+            String startVersion = (flags & SET_START_VERSION) != 0 ? in.readString(table) : null;
+            String endVersion = (flags & SET_END_VERSION) != 0 ? in.readString(table) : null;
+
+            int entryCount = in.readCount();
+            List<ChangeSet> entries = new ArrayList<>(entryCount);
+            for (int e = 0; e < entryCount; e++) {
+                ChangeSet entry = new ChangeSet();
+
+                flags = in.readVarint();
+                if ((flags & ENTRY_DATE) != 0) {
+                    lastDate += in.readSignedVarint();
+                    entry.setDate(new Date(lastDate));
+                }
+                if ((flags & ENTRY_AUTHOR) != 0) {
+                    entry.setAuthor(in.readString(table));
+                }
+                if ((flags & ENTRY_COMMENT) != 0) {
+                    entry.setComment(in.readString());
+                }
+
+                int fileCount = in.readCount();
+                for (int f = 0; f < fileCount; f++) {
+                    ChangeFile file = new ChangeFile(in.readString(table));
+                    file.setRevision(readRevision(table, in));
+                    entry.addFile(file);
+                }
+
+                entries.add(entry);
+            }
+
+            ChangeLogSet set = new ChangeLogSet(entries, startDate, endDate);
+            if (startVersion != null) {
+                set.setStartVersion(new ScmTag(startVersion));
+            }
+            if (endVersion != null) {
+                set.setEndVersion(new ScmTag(endVersion));
+            }
+            changeLogSets.add(set);
+        }
+
+        return changeLogSets;
+    }
+
+    private static String versionName(ScmVersion version) {
+        return version != null ? version.getName() : null;
+    }
+
+    private static void intern(String string, Map<String, Integer> strings, List<String> table) {
+        if (string != null && !strings.containsKey(string)) {
+            strings.put(string, table.size());
+            table.add(string);
+        }
+    }
+
+    /**
+     * whether a revision is a plain decimal number that survives a round trip through a long
+     */
+    private static boolean isNumeric(String revision) {
+        if (revision == null
+                || revision.isEmpty()
+                || revision.length() > MAX_NUMERIC_REVISION_LENGTH
+                || revision.length() > 1 && revision.charAt(0) == '0') {
+            return false;
+        }
+        for (int i = 0; i < revision.length(); i++) {
+            char c = revision.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // revisions are 0 when missing, odd for numbers and even for string table entries
+    private static void writeRevision(String revision, Map<String, Integer> strings, Output out)
+            throws IOException {
+        if (revision == null) {
+            out.writeVarint(0);
+        } else if (isNumeric(revision)) {
+            out.writeVarint(Long.parseLong(revision) << 1 | 1);
+        } else {
+            out.writeVarint((strings.get(revision) + 1L) << 1);
+        }
+    }
+
+    private static String readRevision(String[] table, Input in) throws IOException {
+        long code = in.readVarLong();
+        if (code == 0) {
+            return null;
+        } else if ((code & 1) != 0) {
+            return Long.toString(code >>> 1);
+        } else if ((code >>> 1) > table.length) {
+            throw new IOException("Corrupt binary changelog.");
+        } else {
+            return table[(int) (code >>> 1) - 1];
+        }
+    }
+
+    /**
+     * buffered varint writer
+     */
+    private static final class Output {
+        // CHECKSTYLE_OFF: MagicNumber
+        private final byte[] buffer = new byte[8192];
+        // CHECKSTYLE_ON: MagicNumber
+
+        private final OutputStream stream;
+
+        private int position;
+
+        Output(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        // CHECKSTYLE_OFF: MagicNumber
+        void writeVarint(long value) throws IOException {
+            if (position + 10 > buffer.length) {
+                flush();
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeSignedVarint(long value) throws IOException {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+        // CHECKSTYLE_ON: MagicNumber
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            if (position + bytes.length > buffer.length) {
+                flush();
+            }
+            if (bytes.length > buffer.length) {
+                stream.write(bytes);
+            } else {
+                System.arraycopy(bytes, 0, buffer, position, bytes.length);
+                position += bytes.length;
+            }
+        }
+
+        void flush() throws IOException {
+            stream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * varint reader over the complete document
+     */
+    private static final class Input {
+        private final byte[] data;
+
+        private int position;
+
+        Input(byte[] data) {
+            this.data = data;
+        }
+
+        byte readByte() throws IOException {
+            if (position >= data.length) {
+                throw new EOFException("Truncated binary changelog.");
+            }
+            return data[position++];
+        }
+
+        // CHECKSTYLE_OFF: MagicNumber
+        int readVarint() throws IOException {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt binary changelog.");
+            }
+            return (int) value;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt binary changelog.");
+        }
+
+        /**
+         * reads the number of elements that follow, each of which takes at least one byte
+         */
+        int readCount() throws IOException {
+            int count = readVarint();
+            if (count > data.length - position) {
+                throw new IOException("Corrupt binary changelog.");
+            }
+            return count;
+        }
+
+        long readSignedVarint() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+        // CHECKSTYLE_ON: MagicNumber
+
+        String readString() throws IOException {
+            int length = readVarint();
+            if (length > data.length - position) {
+                throw new EOFException("Truncated binary changelog.");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /**
+         * reads the index of a string of the table
+         */
+        String readString(String[] table) throws IOException {
+            int index = readVarint();
+            if (index >= table.length) {
+                throw new IOException("Corrupt binary changelog.");
+            }
+            return table[index];
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes and locks the cache files, which the report mojos of a module may use at the same time in a parallel build,
+ * or even other builds of the same checkout.
+ *
+ * @since 3.0.0
+ */
+final class CacheFiles {
+    // file locks are held by the whole JVM, so the threads of a build are kept apart with these
+    private static final ConcurrentMap<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private CacheFiles() {}
+
+    /**
+     * The content of a file.
+     */
+    interface Content {
+        /**
+         * @param out the stream to write the content to
+         * @throws IOException when the content can't be written
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * A lock held on a cache file, until it is closed.
+     */
+    static final class Lock implements Closeable {
+        private final ReentrantLock threadLock;
+
+        private final FileChannel channel;
+
+        private final FileLock fileLock;
+
+        private Lock(ReentrantLock threadLock, FileChannel channel, FileLock fileLock) {
+            this.threadLock = threadLock;
+            this.channel = channel;
+            this.fileLock = fileLock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (fileLock != null) {
+                    fileLock.release();
+                    channel.close();
+                }
+            } finally {
+                threadLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waits until no other thread or process holds the lock of a cache file, and takes it. The lock is held on a
+     * file in the temporary directory named after the path of the cache file, so that none is left next to it in the
+     * sources.
+     *
+     * @param file the cache file
+     * @return the lock, to be closed when the cache file has been validated and written
+     * @throws IOException when the lock file can't be created
+     */
+    static Lock lock(File file) throws IOException {
+        Path lockFile = getLockFile(file);
+        Files.createDirectories(lockFile.getParent());
+
+        ReentrantLock threadLock = LOCKS.computeIfAbsent(lockFile, path -> new ReentrantLock());
+        threadLock.lock();
+        if (threadLock.getHoldCount() > 1) {
+            // the file is locked by this thread already
+            return new Lock(threadLock, null, null);
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            return new Lock(threadLock, channel, channel.lock());
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            threadLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * @param file the cache file
+     * @return the file the lock of the cache file is held on
+     */
+    static Path getLockFile(File file) {
+        String path = file.getAbsoluteFile().toPath().normalize().toString();
+        return new File(System.getProperty("java.io.tmpdir"), "changelog-" + RangeCache.key(path) + ".lock")
+                .toPath()
+                .toAbsolutePath();
+    }
+
+    /**
+     * Writes a file to a temporary file next to it first, then replaces the file with it. Readers see either the
+     * previous or the new file, never a partly written one.
+     *
+     * @param file    the file
+     * @param content the content of the file
+     * @throws IOException when the file can't be written
+     */
+    static void write(File file, Content content) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Files.createDirectories(target.getParent());
+
+        Path temp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                content.writeTo(out);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,524 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+
+/**
+ * Decides which changed files are reported, based on the <code>includes</code> and <code>excludes</code> fileset
+ * patterns. In a pattern <code>*</code> matches any characters but file separators and <code>**</code> matches any
+ * characters.
+ * <p>
+ * All patterns are compiled into a single deterministic automaton over classes of characters, so a file name is
+ * decided with one table lookup per character. The states are built as the file names need them, since many patterns
+ * with <code>**</code> may have far more states than the names ever reach. Should the automaton grow beyond
+ * {@link #MAX_STATES} it starts over, or, when the names hardly share states, every pattern is matched as a regular
+ * expression instead. The decisions of up to {@link #MAX_DECISIONS} file names are kept, since the same files show up
+ * in change after change. The filter may be used by several threads at once.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+final class ChangeFileFilter {
+    static final int MAX_STATES = 100000;
+
+    static final int MAX_DECISIONS = 65536;
+
+    static final int PARALLEL_THRESHOLD = 2000;
+
+    private static final int STAR = -1;
+
+    private static final int DOUBLE_STAR = -2;
+
+    private static final int INCLUDE = -3;
+
+    private static final int EXCLUDE = -4;
+
+    private static final int ASCII = 128;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean hasIncludes;
+
+    // the positions of all patterns: characters, wildcards and the ends of the include and exclude patterns
+    private int[] tokens;
+
+    private int classCount;
+
+    private final int[] asciiClasses = new int[ASCII];
+
+    private char[] otherLiterals;
+
+    private int[] otherLiteralClasses;
+
+    private int lineTerminatorClass;
+
+    private int otherClass;
+
+    private int[] classLiterals;
+
+    private boolean[] classSeparators;
+
+    private boolean[] classLineTerminators;
+
+    private BitSet initialState;
+
+    // null once the patterns need too many states
+    private volatile Automaton automaton;
+
+    // the fallback
+    private final List<Pattern> includePatterns;
+
+    private final List<Pattern> excludePatterns;
+
+    // the same files are changed over and over, so their decisions are kept
+    private final ConcurrentMap<String, Boolean> decisions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param includes the patterns of the files to report, all files when <code>null</code> or empty
+     * @param excludes the patterns of the files not to report, may be <code>null</code>
+     */
+    ChangeFileFilter(String[] includes, String[] excludes) {
+        String[] includeArray = includes != null ? includes : new String[0];
+        String[] excludeArray = excludes != null ? excludes : new String[0];
+
+        hasIncludes = includeArray.length > 0;
+        includePatterns = compilePatterns(includeArray);
+        excludePatterns = compilePatterns(excludeArray);
+
+        buildClasses(includeArray, excludeArray);
+        automaton = new Automaton();
+    }
+
+    /**
+     * @param name the name of a changed file
+     * @return whether the file matches one of the includes, if there are any, and none of the excludes
+     */
+    boolean accept(String name) {
+        Boolean decision = decisions.get(name);
+        if (decision != null) {
+            hits.increment();
+            return decision;
+        }
+
+        misses.increment();
+        boolean accepted = decide(name);
+        if (decisions.size() < MAX_DECISIONS) {
+            decisions.put(name, accepted);
+        }
+        return accepted;
+    }
+
+    /**
+     * @return how many file names were decided from the kept decisions
+     */
+    long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return how many file names had to be matched against the patterns
+     */
+    long getMisses() {
+        return misses.sum();
+    }
+
+    private boolean decide(String name) {
+        Automaton current = automaton;
+        if (current != null) {
+            int state = current.run(name);
+            if (state >= 0) {
+                return current.accepted[state];
+            }
+            reset(current);
+        }
+
+        return matchesAny(includePatterns, name, true) && !matchesAny(excludePatterns, name, false);
+    }
+
+    /**
+     * Decides which files of the change sets are reported, without changing the change sets. From
+     * {@link #PARALLEL_THRESHOLD} change sets on, they are decided in parallel on the common fork-join pool.
+     *
+     * @param entries the change sets
+     * @return for each change set, in the same order, the files that are reported: the files of the change set
+     *         itself when all of them are
+     */
+    List<List<ChangeFile>> select(List<ChangeSet> entries) {
+        List<ChangeSet> indexed = entries instanceof RandomAccess ? entries : new ArrayList<>(entries);
+
+        IntStream indices = IntStream.range(0, indexed.size());
+        if (indexed.size() >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        return indices.mapToObj(i -> select(indexed.get(i))).collect(Collectors.toList());
+    }
+
+    private List<ChangeFile> select(ChangeSet entry) {
+        List<ChangeFile> files = entry.getFiles();
+        List<ChangeFile> selected = null;
+        for (int i = 0; i < files.size(); i++) {
+            ChangeFile file = files.get(i);
+            if (accept(file.getName())) {
+                if (selected != null) {
+                    selected.add(file);
+                }
+            } else if (selected == null) {
+                selected = new ArrayList<>(files.subList(0, i));
+            }
+        }
+        return selected != null ? selected : files;
+    }
+
+    /**
+     * @return whether the patterns are matched by the automaton, rather than one by one
+     */
+    boolean isCompiled() {
+        return automaton != null;
+    }
+
+    /**
+     * Starts over with an empty automaton once the states the names needed so far fill it up, unless it took fewer
+     * names than states to do so: the names then hardly ever share states and the automaton is not worth it.
+     */
+    private synchronized void reset(Automaton full) {
+        if (automaton == full) {
+            automaton = full.decided.sum() >= MAX_STATES ? new Automaton() : null;
+        }
+    }
+
+    /**
+     * Converts a fileset pattern into a regular expression.
+     *
+     * @param pattern the fileset pattern
+     * @return the regular expression matching the same names
+     */
+    static Pattern compilePattern(String pattern) {
+        // replaces * with [/\]* (everything but file seperators)
+        // replaces ** with .*
+        // quotes the rest of the string
+        String string = "\\Q" + pattern + "\\E";
+        string = string.replace("**", "\\E.?REPLACEMENT?\\Q");
+        string = string.replace("*", "\\E[^/\\\\]?REPLACEMENT?\\Q");
+        string = string.replace("?REPLACEMENT?", "*");
+        string = string.replace("\\Q\\E", "");
+        return Pattern.compile(string);
+    }
+
+    private static List<Pattern> compilePatterns(String[] patternArray) {
+        List<Pattern> patterns = new ArrayList<>(patternArray.length);
+        for (String pattern : patternArray) {
+            patterns.add(compilePattern(pattern));
+        }
+        return patterns;
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String name, boolean whenEmpty) {
+        if (patterns.isEmpty()) {
+            return whenEmpty;
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSeparator(int c) {
+        return c == '/' || c == '\\';
+    }
+
+    // the characters . doesn't match in a regular expression
+    private static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private int classOf(char c) {
+        if (c < ASCII) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(otherLiterals, c);
+        if (index >= 0) {
+            return otherLiteralClasses[index];
+        }
+        return isLineTerminator(c) ? lineTerminatorClass : otherClass;
+    }
+
+    /**
+     * Splits the patterns into positions and the characters into classes: one per literal character of the patterns,
+     * then the separators, the line terminators and all other characters that no pattern names.
+     */
+    private void buildClasses(String[] includes, String[] excludes) {
+        List<Integer> tokenList = new ArrayList<>();
+        BitSet starts = new BitSet();
+        TreeSet<Character> literals = new TreeSet<>();
+
+        for (int p = 0; p < includes.length + excludes.length; p++) {
+            String pattern = p < includes.length ? includes[p] : excludes[p - includes.length];
+            starts.set(tokenList.size());
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '*' && i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                    tokenList.add(DOUBLE_STAR);
+                    i++;
+                } else if (c == '*') {
+                    tokenList.add(STAR);
+                } else {
+                    tokenList.add((int) c);
+                    literals.add(c);
+                }
+            }
+            tokenList.add(p < includes.length ? INCLUDE : EXCLUDE);
+        }
+
+        tokens = new int[tokenList.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = tokenList.get(i);
+        }
+
+        int literalCount = literals.size();
+        classCount = literalCount + 3;
+        int separatorClass = literalCount;
+        lineTerminatorClass = literalCount + 1;
+        otherClass = literalCount + 2;
+
+        classLiterals = new int[classCount];
+        classSeparators = new boolean[classCount];
+        classLineTerminators = new boolean[classCount];
+        Arrays.fill(classLiterals, -1);
+        classSeparators[separatorClass] = true;
+        classLineTerminators[lineTerminatorClass] = true;
+
+        Arrays.fill(asciiClasses, otherClass);
+        asciiClasses['/'] = separatorClass;
+        asciiClasses['\\'] = separatorClass;
+        asciiClasses['\n'] = lineTerminatorClass;
+        asciiClasses['\r'] = lineTerminatorClass;
+
+        otherLiterals = new char[literals.tailSet((char) ASCII).size()];
+        otherLiteralClasses = new int[otherLiterals.length];
+
+        int k = 0;
+        int other = 0;
+        for (char c : literals) {
+            classLiterals[k] = c;
+            classSeparators[k] = isSeparator(c);
+            classLineTerminators[k] = isLineTerminator(c);
+            if (c < ASCII) {
+                asciiClasses[c] = k;
+            } else {
+                otherLiterals[other] = c;
+                otherLiteralClasses[other++] = k;
+            }
+            k++;
+        }
+
+        initialState = closure(tokens, starts);
+    }
+
+    /**
+     * The states of the automaton, built by subset construction as the file names need them. Known transitions are
+     * followed without locking: a transition is published only once the state it leads to is complete.
+     */
+    private final class Automaton {
+        private final Map<BitSet, Integer> stateIds = new HashMap<>();
+
+        private final List<BitSet> states = new ArrayList<>();
+
+        // a transition not known yet is -1
+        private AtomicIntegerArray[] transitions = new AtomicIntegerArray[INITIAL_CAPACITY];
+
+        private boolean[] accepted = new boolean[INITIAL_CAPACITY];
+
+        private int deadState = -1;
+
+        private final LongAdder decided = new LongAdder();
+
+        Automaton() {
+            addState(initialState);
+        }
+
+        /**
+         * @return the state the name leads to, or -1 if the automaton is full
+         */
+        int run(String name) {
+            decided.increment();
+
+            int state = 0;
+            for (int i = 0, length = name.length(); i < length && state != deadState; i++) {
+                int k = classOf(name.charAt(i));
+                int next = transitions[state].get(k);
+                if (next < 0) {
+                    next = addTransition(state, k);
+                    if (next < 0) {
+                        return -1;
+                    }
+                }
+                state = next;
+            }
+            return state;
+        }
+
+        private synchronized int addTransition(int state, int k) {
+            int known = transitions[state].get(k);
+            if (known >= 0) {
+                return known;
+            }
+
+            BitSet positions = states.get(state);
+            BitSet next = new BitSet();
+            for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                int token = tokens[i];
+                if (token >= 0 && token == classLiterals[k]) {
+                    next.set(i + 1);
+                } else if (token == STAR && !classSeparators[k]
+                        || token == DOUBLE_STAR && !classLineTerminators[k]) {
+                    next.set(i);
+                }
+            }
+            next = closure(tokens, next);
+
+            Integer nextId = stateIds.get(next);
+            if (nextId == null) {
+                if (states.size() >= MAX_STATES) {
+                    return -1;
+                }
+                nextId = addState(next);
+            }
+
+            transitions[state].set(k, nextId);
+            return nextId;
+        }
+
+        private int addState(BitSet positions) {
+            int id = states.size();
+            stateIds.put(positions, id);
+            states.add(positions);
+
+            boolean included = !hasIncludes;
+            boolean excluded = false;
+            for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                included |= tokens[i] == INCLUDE;
+                excluded |= tokens[i] == EXCLUDE;
+            }
+
+            AtomicIntegerArray row = new AtomicIntegerArray(classCount);
+            for (int k = 0; k < classCount; k++) {
+                row.set(k, -1);
+            }
+
+            if (id == transitions.length) {
+                transitions = Arrays.copyOf(transitions, id * 2);
+                accepted = Arrays.copyOf(accepted, id * 2);
+            }
+            transitions[id] = row;
+            accepted[id] = included && !excluded;
+            if (positions.isEmpty()) {
+                deadState = id;
+            }
+            return id;
+        }
+    }
+
+    /**
+     * adds the positions after the wildcards of a state, since a wildcard also matches nothing
+     */
+    private static BitSet closure(int[] tokens, BitSet positions) {
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            if (tokens[i] == STAR || tokens[i] == DOUBLE_STAR) {
+                positions.set(i + 1);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Finds the paths below <code>basedir</code> every changed file matching one of the include patterns is in, so
+     * that the SCM can be asked for the changes of these paths only. A pattern is confined to the directory before its
+     * first wildcard, or to the file it names when it has none.
+     *
+     * @param includes the include patterns
+     * @param basedir  the directory the SCM is asked for
+     * @return the paths relative to <code>basedir</code>, or an empty list when the includes can't be narrowed down
+     *         to existing paths and the whole of <code>basedir</code> has to be asked for
+     */
+    static List<File> getIncludeRoots(String[] includes, File basedir) {
+        if (includes == null || includes.length == 0) {
+            return Collections.emptyList();
+        }
+
+        List<String> paths = new ArrayList<>(includes.length);
+        for (String include : includes) {
+            String path = include.replace('\\', '/');
+
+            int wildcard = path.indexOf('*');
+            if (wildcard >= 0) {
+                path = path.substring(0, path.lastIndexOf('/', wildcard) + 1);
+            }
+            while (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+
+            if (path.isEmpty() || path.startsWith("/") || path.contains("..") || !new File(basedir, path).exists()) {
+                return Collections.emptyList();
+            }
+
+            paths.add(path);
+        }
+
+        // a path inside another one adds nothing to it
+        List<File> roots = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            boolean nested = false;
+            for (String other : paths) {
+                nested |= path.startsWith(other + "/");
+            }
+            File root = new File(path);
+            if (!nested && !roots.contains(root)) {
+                roots.add(root);
+            }
+        }
+
+        return roots;
+    }
+}
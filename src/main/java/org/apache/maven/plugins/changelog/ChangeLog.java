@@ -19,18 +19,18 @@
 package org.apache.maven.plugins.changelog;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.apache.maven.scm.ChangeSet;
 import org.apache.maven.scm.command.changelog.ChangeLogSet;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
@@ -52,33 +52,124 @@ public class ChangeLog {
      *
      * @param stream the changelog xml document
      * @return changelog sets parsed from the xml document
-     * @throws ParserConfigurationException when instantiation of the SAX parser failed
-     * @throws SAXException                 when an error occurred while parsing the xml document
-     * @throws IOException                  when an error occurred while accessing the xml document
+     * @throws ParserConfigurationException never, kept for compatibility
+     * @throws SAXException                 never, kept for compatibility
+     * @throws IOException                  when an error occurred while reading or parsing the xml document
      */
     public static List<ChangeLogSet> loadChangedSets(InputStream stream)
             throws ParserConfigurationException, SAXException, IOException {
-        SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
-
-        List<ChangeLogSet> changeLogSets = new ArrayList<>();
-
-        parser.parse(stream, new ChangeLogHandler(changeLogSets));
-
-        return changeLogSets;
+        try (ChangeLogReader reader = ChangeLogReader.open(stream)) {
+            return reader.readChangeLogSets();
+        }
     }
 
+    /**
+     * parses a previously generated changelog xml document and return its changed sets
+     *
+     * @param reader the changelog xml document
+     * @return changelog sets parsed from the xml document
+     * @throws ParserConfigurationException never, kept for compatibility
+     * @throws SAXException                 never, kept for compatibility
+     * @throws IOException                  when an error occurred while reading or parsing the xml document
+     */
     public static List<ChangeLogSet> loadChangedSets(Reader reader)
             throws ParserConfigurationException, SAXException, IOException {
-        SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
+        return loadChangedSets(reader, null);
+    }
+
+    /**
+     * parses a previously generated changelog xml document and return its changed sets, leaving out the change sets
+     * the filter doesn't report while parsing
+     *
+     * @param reader          the changelog xml document
+     * @param changeSetFilter the filter of the change sets, may be <code>null</code>
+     * @return changelog sets parsed from the xml document
+     * @throws IOException when an error occurred while reading or parsing the xml document
+     */
+    static List<ChangeLogSet> loadChangedSets(Reader reader, ChangeSetFilter changeSetFilter) throws IOException {
+        try (ChangeLogReader changeLogReader = open(reader, changeSetFilter)) {
+            return changeLogReader.readChangeLogSets();
+        }
+    }
+
+    /**
+     * opens a previously generated changelog xml document to pull its change sets one at a time
+     *
+     * @param reader          the changelog xml document
+     * @param changeSetFilter the filter of the change sets, may be <code>null</code>
+     * @return the reader of the document, leaving out the change sets the filter doesn't report
+     * @throws IOException when the xml document can't be opened
+     */
+    static ChangeLogReader open(Reader reader, ChangeSetFilter changeSetFilter) throws IOException {
+        // CHECKSTYLE_OFF: MagicNumber
+        return ChangeLogReader.open(new BufferedReader(reader, 8192)).filter(changeSetFilter);
+        // CHECKSTYLE_ON: MagicNumber
+    }
 
-        List<ChangeLogSet> changeLogSets = new ArrayList<>();
+    /**
+     * lazily reads the change sets of a previously generated changelog xml document, one at a time and without
+     * building the change log sets around them. The stream must be closed to release the document.
+     *
+     * @param stream the changelog xml document
+     * @return the change sets of all change log sets in document order, failing with an
+     *         {@link java.io.UncheckedIOException} when the rest of the document can't be read
+     * @throws IOException when the xml document can't be opened
+     */
+    public static Stream<ChangeSet> streamChangedSets(InputStream stream) throws IOException {
+        return ChangeLogReader.open(stream).changeSets();
+    }
 
+    /**
+     * lazily reads the change sets of a previously generated changelog xml document, one at a time and without
+     * building the change log sets around them. The stream must be closed to release the document.
+     *
+     * @param reader the changelog xml document
+     * @return the change sets of all change log sets in document order, failing with an
+     *         {@link java.io.UncheckedIOException} when the rest of the document can't be read
+     * @throws IOException when the xml document can't be opened
+     */
+    public static Stream<ChangeSet> streamChangedSets(Reader reader) throws IOException {
         // CHECKSTYLE_OFF: MagicNumber
-        BufferedReader br = new BufferedReader(reader, 8192);
+        return ChangeLogReader.open(new BufferedReader(reader, 8192)).changeSets();
         // CHECKSTYLE_ON: MagicNumber
+    }
+
+    /**
+     * writes the changelog xml document of change log sets, one change set at a time rather than building the whole
+     * document in memory. The document is the same as the one the change log sets would create with
+     * {@link ChangeLogSet#toXML(String)}.
+     *
+     * @param changeLogSets the change log sets
+     * @param encoding      the encoding named in the xml declaration, the writer has to use it
+     * @param writer        the writer of the document
+     * @throws IOException when an error occurred while writing the xml document
+     */
+    public static void writeChangedSets(List<ChangeLogSet> changeLogSets, String encoding, Writer writer)
+            throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"" + encoding + "\"?>\n");
+        writer.write("<changelog>");
+
+        for (ChangeLogSet changeLogSet : changeLogSets) {
+            writer.write("\n  ");
+
+            // the changeset element of the set without its change sets, these are written one by one in between
+            ChangeLogSet element =
+                    new ChangeLogSet(new ArrayList<>(), changeLogSet.getStartDate(), changeLogSet.getEndDate());
+            element.setStartVersion(changeLogSet.getStartVersion());
+            element.setEndVersion(changeLogSet.getEndVersion());
+            String changeset = element.toXML(encoding);
+
+            // remove xml header
+            int start = changeset.startsWith("<?xml") ? changeset.indexOf("?>") + 2 : 0;
+            int end = changeset.lastIndexOf("</changeset>");
 
-        parser.parse(new InputSource(br), new ChangeLogHandler(changeLogSets));
+            writer.write(changeset, start, end - start);
+            for (ChangeSet changeSet : changeLogSet.getChangeSets()) {
+                writer.write(changeSet.toXML());
+            }
+            writer.write(changeset, end, changeset.length() - end);
+        }
 
-        return changeLogSets;
+        writer.write("\n</changelog>");
     }
 }
@@ -0,0 +1,1508 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.changelog.scm.provider.svn.svnexe.command.info.SvnInfoCommandExpanded;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.reporting.MavenReportException;
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.CommandParameters;
+import org.apache.maven.scm.ScmBranch;
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.ScmRevision;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.changelog.ChangeLogScmRequest;
+import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.apache.maven.scm.command.info.InfoItem;
+import org.apache.maven.scm.command.info.InfoScmResult;
+import org.apache.maven.scm.provider.ScmProvider;
+import org.apache.maven.scm.provider.ScmUrlUtils;
+import org.apache.maven.scm.provider.svn.SvnTagBranchUtils;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+
+/**
+ * Loads the changed sets a changelog report shows: from <code>outputXML</code> while it is current, otherwise from the
+ * SCM, the closed ranges through the range cache.
+ */
+final class ChangeLogFetcher {
+    // the system properties are set for the whole JVM, so the executions setting them fetch on their own
+    private static final ReadWriteLock SYSTEM_PROPERTIES_LOCK = new ReentrantReadWriteLock();
+
+    // the providers reading system properties
+    private static final Set<String> SYSTEM_PROPERTIES_PROVIDERS =
+            new HashSet<>(Arrays.asList("perforce", "starteam"));
+
+    private static final String PREFETCH_KEY = "changelog.prefetch:";
+
+    private final ChangeLogReport report;
+
+    private final Log log;
+
+    private File rangeCacheDirectory;
+
+    private List<File> includeRoots;
+
+    // the directory the changed sets are fetched for, basedir unless they are fetched for all modules
+    private File fetchDirectory;
+
+    private TagRevisionCache tagRevisionCache;
+
+    private boolean tagsListed;
+
+    /**
+     * @param report the report mojo, with its configuration verified and <code>outputXML</code> resolved
+     */
+    ChangeLogFetcher(ChangeLogReport report) {
+        this.report = report;
+        this.log = report.getLog();
+        this.rangeCacheDirectory = report.rangeCacheDirectory;
+    }
+
+    /**
+     * Starts loading the changed sets in the background, for the report mojos of the module to render them later in
+     * the build. They find the loading in the project context, and wait for it if it isn't done yet.
+     */
+    void prefetch() {
+        String modelKey = getModelKey();
+        if (getSharedModel(modelKey) != null || report.project.getContextValue(PREFETCH_KEY + modelKey) != null) {
+            return;
+        }
+
+        FutureTask<ChangeLogModel> prefetch = new FutureTask<>(this::loadModel);
+        report.project.setContextValue(PREFETCH_KEY + modelKey, prefetch);
+
+        Thread thread = new Thread(prefetch, "changelog-prefetch-" + report.project.getArtifactId());
+        // outputXML is replaced atomically, so a build ending first leaves the previous one
+        thread.setDaemon(true);
+        thread.start();
+
+        log.info("Fetching the changed sets in the background to " + report.outputXML.getAbsolutePath());
+    }
+
+    /**
+     * @return the changed sets with what the reports show of them, loaded by the first report mojo of the module
+     * @throws MavenReportException if any exception occurs
+     */
+    ChangeLogModel getModel() throws MavenReportException {
+        // the other report mojos of the module render the model built by the first one, without loading outputXML
+        // again
+        String modelKey = getModelKey();
+        ChangeLogModel model = getSharedModel(modelKey);
+        if (model == null) {
+            model = awaitPrefetch(modelKey);
+            if (model == null) {
+                model = loadModel();
+            }
+            // softly referenced, so that the changed sets of the modules already rendered don't pile up on the heap:
+            // when it's collected the next report of the module reads outputXML again
+            report.project.setContextValue(modelKey, new SoftReference<>(model));
+        } else {
+            log.debug("Using the changed sets loaded by another report of the module.");
+        }
+        return model;
+    }
+
+    /**
+     * Adds all system properties configured by the user.
+     *
+     * @return the values the system properties had before, without those that were not set
+     */
+    private Properties setSystemProperties() {
+        Properties previous = new Properties();
+
+        for (String key : report.systemProperties.stringPropertyNames()) {
+            String value = report.systemProperties.getProperty(key);
+
+            String previousValue = System.setProperty(key, value);
+            if (previousValue != null) {
+                previous.setProperty(key, previousValue);
+            }
+
+            log.debug("Setting system property: " + key + '=' + value);
+        }
+
+        return previous;
+    }
+
+    private void restoreSystemProperties(Properties previous) {
+        for (String key : report.systemProperties.stringPropertyNames()) {
+            if (previous.containsKey(key)) {
+                System.setProperty(key, previous.getProperty(key));
+            } else {
+                System.clearProperty(key);
+            }
+        }
+    }
+
+    /**
+     * @param modelKey the key of the model of the module
+     * @return the model another report mojo of the module loaded, or <code>null</code> if there is none (anymore)
+     */
+    private ChangeLogModel getSharedModel(String modelKey) {
+        @SuppressWarnings("unchecked")
+        Reference<ChangeLogModel> shared = (Reference<ChangeLogModel>) report.project.getContextValue(modelKey);
+        return shared != null ? shared.get() : null;
+    }
+
+    /**
+     * Waits for the changed sets the prefetch goal started to load for the module, if any.
+     *
+     * @param modelKey the key of the model of the module
+     * @return the model loaded in the background, or <code>null</code> if there is none or it failed
+     */
+    private ChangeLogModel awaitPrefetch(String modelKey) {
+        @SuppressWarnings("unchecked")
+        Future<ChangeLogModel> prefetch =
+                (Future<ChangeLogModel>) report.project.getContextValue(PREFETCH_KEY + modelKey);
+        if (prefetch == null) {
+            return null;
+        }
+        report.project.setContextValue(PREFETCH_KEY + modelKey, null);
+
+        if (!prefetch.isDone()) {
+            log.info("Waiting for the changed sets fetched in the background.");
+        }
+        try {
+            return prefetch.get();
+        } catch (ExecutionException e) {
+            log.warn("The changed sets couldn't be fetched in the background: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * validates or regenerates outputXML and loads the changed sets, with the system properties set
+     *
+     * @return the model of the changed sets
+     * @throws MavenReportException if any exception occurs
+     */
+    private ChangeLogModel loadModel() throws MavenReportException {
+        if (report.systemProperties == null || report.systemProperties.isEmpty()) {
+            if (!SYSTEM_PROPERTIES_PROVIDERS.contains(getProvider())) {
+                return loadModelLocked();
+            }
+
+            // no execution sets system properties while this one fetches, as they would be seen by its provider too
+            SYSTEM_PROPERTIES_LOCK.readLock().lock();
+            try {
+                return loadModelLocked();
+            } finally {
+                SYSTEM_PROPERTIES_LOCK.readLock().unlock();
+            }
+        }
+
+        // the providers needing them only read system properties, so they are set while the changed sets are
+        // fetched and restored afterwards, with no other execution setting or reading them meanwhile
+        SYSTEM_PROPERTIES_LOCK.writeLock().lock();
+        try {
+            Properties previous = setSystemProperties();
+            try {
+                return loadModelLocked();
+            } finally {
+                restoreSystemProperties(previous);
+            }
+        } finally {
+            SYSTEM_PROPERTIES_LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the SCM provider of the connection, or <code>null</code> if there is no valid connection
+     */
+    private String getProvider() {
+        String connection;
+        try {
+            connection = report.getConnection();
+        } catch (MavenReportException e) {
+            // reported where the connection is used
+            return null;
+        }
+        return ScmUrlUtils.isValid(connection) ? ScmUrlUtils.getProvider(connection) : null;
+    }
+
+    private ChangeLogModel loadModelLocked() throws MavenReportException {
+        // the report mojos of other modules and builds sharing outputXML wait for this one to validate or regenerate
+        // it, then use it
+        try (CacheFiles.Lock lock = CacheFiles.lock(report.outputXML)) {
+            Properties fingerprint = null;
+            if ("revision".equalsIgnoreCase(report.cacheValidation) && !report.offline) {
+                fingerprint = getCacheFingerprint();
+            }
+
+            return getModel(fingerprint);
+        } catch (IOException e) {
+            throw new MavenReportException("Can't lock " + report.outputXML.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * @return the key of the model of the module in the project context, telling apart the configurations the changed
+     *         sets are loaded with
+     */
+    private String getModelKey() {
+        return ChangeLogModel.class.getName() + ':'
+                + RangeCache.key(
+                        report.outputXML.getAbsolutePath(),
+                        String.valueOf(report.isAggregate()),
+                        report.type,
+                        String.valueOf(report.range),
+                        String.valueOf(report.count),
+                        String.valueOf(report.tags),
+                        String.valueOf(report.dates),
+                        report.dateFormat,
+                        Arrays.toString(report.includes),
+                        Arrays.toString(report.excludes),
+                        Arrays.toString(report.includeAuthors),
+                        Arrays.toString(report.excludeAuthors),
+                        report.messageExcludePattern);
+    }
+
+    private ChangeLogModel getModel(Properties fingerprint) throws MavenReportException {
+        List<ChangeLogSet> expiredList = null;
+
+        if (report.outputXML.exists()) {
+            if (fingerprint != null ? fingerprint.equals(readCacheFingerprint()) : isOutputXMLCurrent()) {
+                ChangeLogModel model = loadCachedModel();
+                if (model != null) {
+                    return model;
+                }
+            } else if (report.incremental && "range".equals(report.type)) {
+                ChangeLogModel model = loadCachedModel();
+                if (model != null) {
+                    expiredList = model.getChangeLogSets();
+                }
+            }
+        }
+
+        if (report.offline) {
+            throw new MavenReportException("This report requires online mode.");
+        }
+
+        List<ChangeLogSet> changelogList = null;
+
+        if (expiredList != null) {
+            changelogList = updateChangeSetsFromSCM(expiredList);
+        }
+
+        if (changelogList == null) {
+            log.info("Generating changed sets xml to: " + report.outputXML.getAbsolutePath());
+
+            changelogList = report.generateChangeSetsFromSCM();
+        }
+
+        try {
+            writeChangelogXml(changelogList);
+            writeCacheFingerprint(fingerprint);
+        } catch (IOException e) {
+            throw new MavenReportException("Can't create " + report.outputXML.getAbsolutePath(), e);
+        }
+
+        if (isBinaryCache()) {
+            writeBinaryCache(changelogList);
+        }
+
+        return new ChangeLogModel(changelogList);
+    }
+
+    private boolean isOutputXMLCurrent() {
+        // CHECKSTYLE_OFF: MagicNumber
+        return report.outputXMLExpiration > 0
+                && report.outputXMLExpiration * 60000L > System.currentTimeMillis() - report.outputXML.lastModified();
+        // CHECKSTYLE_ON: MagicNumber
+    }
+
+    /**
+     * @return the fingerprint stored next to <code>outputXML</code>
+     */
+    private File getCacheFingerprintFile() {
+        return new File(report.outputXML.getPath() + ".fingerprint");
+    }
+
+    /**
+     * Probes the head revision of the SCM and combines it with the configuration the changed sets are fetched with:
+     * the part of the repository they are fetched for, the tag base the tags are resolved in and the date format the
+     * dates are parsed with, next to the range and the filters.
+     *
+     * @return the fingerprint of the changed sets a fetch would return now, or <code>null</code> if the head revision
+     *         can't be determined
+     * @throws MavenReportException if the SCM connection is not set
+     */
+    private Properties getCacheFingerprint() throws MavenReportException {
+        String head;
+        String tagBase = "";
+        try {
+            ScmRepository repository = report.getScmRepository();
+
+            head = getHeadRevision(repository, report.manager.getProviderByRepository(repository));
+
+            if (repository.getProvider().equals("svn")) {
+                tagBase = SvnTagBranchUtils.resolveTagBase(
+                        (SvnScmProviderRepository) repository.getProviderRepository());
+            }
+        } catch (ScmException e) {
+            log.warn("Can't determine the head revision, using outputXMLExpiration: " + e.getMessage());
+            return null;
+        }
+
+        if (head == null || head.isEmpty()) {
+            log.warn("Can't determine the head revision, using outputXMLExpiration.");
+            return null;
+        }
+
+        Properties fingerprint = new Properties();
+        fingerprint.setProperty("head", head);
+        fingerprint.setProperty("connection", report.getConnection());
+        fingerprint.setProperty("basedir", report.basedir.getAbsolutePath());
+        fingerprint.setProperty("pathScope", getPathScope());
+        fingerprint.setProperty("aggregate", String.valueOf(report.isAggregate()));
+        fingerprint.setProperty("tagBase", tagBase);
+        fingerprint.setProperty("type", report.type);
+        fingerprint.setProperty("range", String.valueOf(report.range));
+        fingerprint.setProperty("count", String.valueOf(report.count));
+        fingerprint.setProperty("tags", String.valueOf(report.tags));
+        fingerprint.setProperty("dates", String.valueOf(report.dates));
+        fingerprint.setProperty("dateFormat", String.valueOf(report.dateFormat));
+        fingerprint.setProperty("includes", Arrays.toString(report.includes));
+        fingerprint.setProperty("excludes", Arrays.toString(report.excludes));
+        fingerprint.setProperty("includeAuthors", Arrays.toString(report.includeAuthors));
+        fingerprint.setProperty("excludeAuthors", Arrays.toString(report.excludeAuthors));
+        fingerprint.setProperty("messageExcludePattern", String.valueOf(report.messageExcludePattern));
+        if ("range".equals(report.type) && report.range > 0) {
+            // the window moves even when nothing is committed
+            // CHECKSTYLE_OFF: MagicNumber
+            Date windowStart = new Date(System.currentTimeMillis() - report.range * 86400000L);
+            // CHECKSTYLE_ON: MagicNumber
+            fingerprint.setProperty("rangeStart", new SimpleDateFormat("yyyy-MM-dd").format(windowStart));
+        }
+
+        log.debug("Head revision: " + head);
+
+        return fingerprint;
+    }
+
+    /**
+     * Resolves the revision of the last change of the checked out sources. For Subversion the repository is asked,
+     * other providers report the revision of the working copy.
+     *
+     * @return the head revision, or <code>null</code> if the provider doesn't report one
+     */
+    private String getHeadRevision(ScmRepository repository, ScmProvider provider) throws ScmException {
+        InfoScmResult result;
+        if (repository.getProvider().equals("svn")) {
+            result = new SvnInfoCommandExpanded()
+                    .executeInfoCommand(
+                            (SvnScmProviderRepository) repository.getProviderRepository(),
+                            new ScmFileSet(report.basedir),
+                            null,
+                            false,
+                            "HEAD");
+        } else {
+            result = provider.info(
+                    repository.getProviderRepository(), new ScmFileSet(report.basedir), new CommandParameters());
+        }
+
+        if (result == null || !result.isSuccess() || result.getInfoItems().isEmpty()) {
+            return null;
+        }
+
+        InfoItem infoItem = result.getInfoItems().get(0);
+        return infoItem.getLastChangedRevision() != null ? infoItem.getLastChangedRevision() : infoItem.getRevision();
+    }
+
+    private Properties readCacheFingerprint() {
+        Properties fingerprint = new Properties();
+
+        try (InputStream in = Files.newInputStream(getCacheFingerprintFile().toPath())) {
+            fingerprint.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Stores the fingerprint of the changed sets just written to <code>outputXML</code>, or removes a previous one
+     * which no longer describes them.
+     */
+    private void writeCacheFingerprint(Properties fingerprint) throws IOException {
+        File fingerprintFile = getCacheFingerprintFile();
+
+        if (fingerprint == null) {
+            Files.deleteIfExists(fingerprintFile.toPath());
+            return;
+        }
+
+        CacheFiles.write(fingerprintFile, out -> fingerprint.store(out, "changelog cache fingerprint"));
+    }
+
+    /**
+     * Loads the changed sets of a previous run from the binary cache, when enabled and current, or pulls them from
+     * <code>outputXML</code>, summarizing them for the reports while they are read.
+     *
+     * @return the model of the cached changed sets, or <code>null</code> if <code>outputXML</code> has disappeared
+     * @throws MavenReportException if <code>outputXML</code> can't be parsed
+     */
+    private ChangeLogModel loadCachedModel() throws MavenReportException {
+        if (isBinaryCache()) {
+            List<ChangeLogSet> changelogList = readBinaryCache();
+            if (changelogList != null) {
+                for (ChangeLogSet changeLogSet : changelogList) {
+                    getChangeSetFilter().filter(changeLogSet);
+                }
+                return new ChangeLogModel(changelogList);
+            }
+        }
+
+        ChangeLogModel model;
+
+        log.info("Using existing changelog.xml...");
+        try (ChangeLogReader reader = ChangeLog.open(
+                new InputStreamReader(Files.newInputStream(report.outputXML.toPath()), report.getOutputEncoding()),
+                getChangeSetFilter())) {
+            model = ChangeLogModel.read(reader);
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            // do nothing, just regenerate
+            return null;
+        } catch (IOException e) {
+            throw new MavenReportException("An error occurred while parsing " + report.outputXML.getAbsolutePath(), e);
+        }
+
+        if (isBinaryCache()) {
+            writeBinaryCache(model.getChangeLogSets());
+        }
+
+        return model;
+    }
+
+    private boolean isBinaryCache() {
+        return "binary".equalsIgnoreCase(report.cacheFormat);
+    }
+
+    /**
+     * @return the binary copy of <code>outputXML</code>
+     */
+    private File getBinaryCacheFile() {
+        return new File(report.outputXML.getPath() + ".bin");
+    }
+
+    /**
+     * Loads the binary copy of <code>outputXML</code> if it is at least as recent as <code>outputXML</code>.
+     *
+     * @return the changed sets, or <code>null</code> if the binary cache is missing, stale or unreadable
+     */
+    private List<ChangeLogSet> readBinaryCache() {
+        File binaryCache = getBinaryCacheFile();
+
+        if (!binaryCache.exists() || binaryCache.lastModified() < report.outputXML.lastModified()) {
+            return null;
+        }
+
+        try {
+            log.info("Using existing " + binaryCache.getName() + "...");
+            return BinaryChangeLog.read(Files.readAllBytes(binaryCache.toPath()));
+        } catch (IOException e) {
+            log.warn("Ignoring " + binaryCache.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeBinaryCache(List<ChangeLogSet> changelogList) {
+        File binaryCache = getBinaryCacheFile();
+
+        try {
+            CacheFiles.write(binaryCache, out -> BinaryChangeLog.write(changelogList, out));
+        } catch (IOException e) {
+            // the xml document is still there, the next run just can't take the shortcut
+            log.warn("Can't create " + binaryCache.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    private void writeChangelogXml(List<ChangeLogSet> changelogList) throws IOException {
+        CacheFiles.write(report.outputXML, out -> {
+            Writer writer = new OutputStreamWriter(new BufferedOutputStream(out), report.getOutputEncoding());
+            ChangeLog.writeChangedSets(changelogList, report.getOutputEncoding(), writer);
+            writer.flush();
+        });
+    }
+
+    /**
+     * connects to the SCM to fetch only the changed sets committed since the newest cached revision, and merges them
+     * into the cached range. Only Subversion, whose revisions are ordered, is supported: the dates of the commits of
+     * other providers, like Git, may be older than those already cached.
+     *
+     * @param cachedList the changed sets of the expired <code>outputXML</code>
+     * @return the updated changed sets, or <code>null</code> if the cache can't be extended and has to be regenerated
+     * @throws MavenReportException if any exception occurs
+     */
+    private List<ChangeLogSet> updateChangeSetsFromSCM(List<ChangeLogSet> cachedList) throws MavenReportException {
+        if (cachedList.size() != 1) {
+            return null;
+        }
+
+        ChangeLogSet cached = cachedList.get(0);
+
+        // CHECKSTYLE_OFF: MagicNumber
+        Date windowStart = report.range > 0 ? new Date(System.currentTimeMillis() - report.range * 86400000L) : null;
+        // CHECKSTYLE_ON: MagicNumber
+
+        if (windowStart != null && (cached.getStartDate() == null || cached.getStartDate().after(windowStart))) {
+            // the range has grown since the cache was written
+            return null;
+        }
+
+        try {
+            ScmRepository repository = report.getScmRepository();
+
+            if (!"svn".equals(repository.getProvider())) {
+                log.info("incremental is only supported for Subversion, fetching the whole range.");
+                return null;
+            }
+
+            String since = IncrementalChangeLog.getNewestRevision(cached);
+            if (since == null) {
+                return null;
+            }
+
+            ScmProvider provider = report.manager.getProviderByRepository(repository);
+
+            log.info("Updating changed sets since revision " + since + " in: " + report.outputXML.getAbsolutePath());
+
+            ChangeLogScmResult result = changeLog(
+                    repository,
+                    (narrowed, fileSet) ->
+                            provider.changeLog(narrowed, fileSet, new ScmRevision(since), new ScmRevision("HEAD")));
+
+            report.checkResult(result);
+
+            List<ChangeLogSet> fetched = new ArrayList<>();
+            fetched.add(result.getChangeLog());
+            filter(fetched);
+
+            List<ChangeLogSet> changeSets = new ArrayList<>();
+            changeSets.add(IncrementalChangeLog.merge(cached, fetched.get(0), windowStart));
+            return changeSets;
+        } catch (ScmException e) {
+            throw new MavenReportException("Cannot run changelog command : ", e);
+        } catch (MojoExecutionException e) {
+            throw new MavenReportException("An error has occurred during changelog command : ", e);
+        }
+    }
+
+    /**
+     * creates a ChangeLog object and then connects to the SCM to generate the changed sets
+     *
+     * @return changedlogsets generated from the SCM
+     * @throws MavenReportException if any exception occurs
+     */
+    List<ChangeLogSet> generateChangeSetsFromSCM() throws MavenReportException {
+        List<ChangeLogSet> changeSets = report.sharedFetch ? getSharedChangeSets() : null;
+        if (changeSets == null) {
+            changeSets = fetchChangeSetsFromSCM();
+        }
+        filter(changeSets);
+        return changeSets;
+    }
+
+    /**
+     * Takes the changed sets of <code>basedir</code> from those of the whole Git work tree, which are fetched by the
+     * first module of the build asking for them, as long as the history has no merge commits.
+     *
+     * @return the changed sets of <code>basedir</code>, or <code>null</code> if they have to be fetched on their own
+     * @throws MavenReportException if any exception occurs
+     */
+    private List<ChangeLogSet> getSharedChangeSets() throws MavenReportException {
+        if (report.session == null
+                || report.session.getTopLevelProject() == null
+                || "count".equals(report.type)
+                || !getIncludeRoots().isEmpty()) {
+            return null;
+        }
+
+        File workTree = SharedChangeLog.getWorkTree(report.basedir);
+        try {
+            if (workTree == null || !"git".equals(report.getScmRepository().getProvider())) {
+                log.debug("sharedFetch is only supported for Git, fetching the changed sets of this module.");
+                return null;
+            }
+        } catch (ScmException e) {
+            throw new MavenReportException("Cannot run changelog command : ", e);
+        }
+
+        String key = RangeCache.key(
+                workTree.getAbsolutePath(),
+                report.getConnection(),
+                report.type,
+                String.valueOf(report.range),
+                String.valueOf(report.tags),
+                String.valueOf(report.dates),
+                report.dateFormat,
+                Arrays.toString(report.includeAuthors),
+                Arrays.toString(report.excludeAuthors),
+                report.messageExcludePattern);
+
+        List<ChangeLogSet> changeSets;
+        try {
+            changeSets = SharedChangeLog.get(report.session.getTopLevelProject(), key, () -> {
+                if (hasMerges(workTree)) {
+                    return null;
+                }
+
+                log.info("Fetching the changed sets of " + workTree + " for all modules");
+                setFetchDirectory(workTree);
+                try {
+                    return fetchChangeSetsFromSCM();
+                } finally {
+                    setFetchDirectory(null);
+                }
+            });
+        } catch (MavenReportException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MavenReportException("An error has occurred during changelog command : ", e);
+        }
+
+        return changeSets != null ? SharedChangeLog.slice(changeSets, workTree, report.basedir) : null;
+    }
+
+    /**
+     * @return whether there are merge commits in the history the changed sets are fetched from, and so the modules
+     *         have to fetch them on their own
+     */
+    private boolean hasMerges(File workTree) throws MojoExecutionException {
+        Date since = null;
+        List<String> revisions = new ArrayList<>();
+        revisions.add("HEAD");
+        if ("range".equals(report.type) && report.range > 0) {
+            // CHECKSTYLE_OFF: MagicNumber
+            since = new Date(System.currentTimeMillis() - report.range * 86400000L);
+            // CHECKSTYLE_ON: MagicNumber
+        } else if ("date".equals(report.type)) {
+            since = parseDate(report.dates.get(0));
+        } else if ("tag".equals(report.type)) {
+            revisions.addAll(report.tags);
+        }
+
+        try {
+            if (SharedChangeLog.hasMerges(workTree, since, revisions)) {
+                log.info("The history of " + workTree + " has merge commits, the modules fetch their changed sets on"
+                        + " their own.");
+                return true;
+            }
+            return false;
+        } catch (ScmException e) {
+            log.warn("Can't look for merge commits, the modules fetch their changed sets on their own: "
+                    + e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * connects to the SCM to fetch the changed sets, with the commits filtered by author and message but not the
+     * files
+     *
+     * @return changedlogsets fetched from the SCM
+     * @throws MavenReportException if any exception occurs
+     */
+    private List<ChangeLogSet> fetchChangeSetsFromSCM() throws MavenReportException {
+        try {
+            List<ChangeLogSet> changeSets = new ArrayList<>();
+
+            ScmRepository repository = report.getScmRepository();
+
+            ScmProvider provider = report.manager.getProviderByRepository(repository);
+
+            ChangeSetFilter changeSetFilter = getChangeSetFilter();
+
+            ChangeLogScmResult result;
+
+            if ("range".equals(report.type)) {
+                result = changeLog(
+                        repository,
+                        (narrowed, fileSet) -> provider.changeLog(
+                                narrowed, fileSet, null, null, report.range, (ScmBranch) null, report.dateFormat));
+
+                report.checkResult(result);
+
+                changeSets.add(result.getChangeLog());
+            } else if ("count".equals(report.type)) {
+                result = changeLog(repository, (narrowed, fileSet) -> {
+                    ChangeLogScmRequest request = new ChangeLogScmRequest(narrowed, fileSet);
+                    request.setLimit(report.count);
+                    request.setDatePattern(report.dateFormat);
+                    return provider.changeLog(request);
+                });
+
+                report.checkResult(result);
+
+                changeSets.add(getNewest(result.getChangeLog().getChangeSets(), report.count));
+            } else if ("tag".equals(report.type)) {
+
+                Iterator<String> tagsIter = report.tags.iterator();
+
+                String startTag = tagsIter.next();
+                String endTag = null;
+
+                List<ChangeLogSet> singlePass = null;
+                if (report.singlePassTags && report.tags.size() > 1) {
+                    singlePass = getTagRangesInSinglePass(repository, provider);
+                }
+
+                if (singlePass != null) {
+                    changeSets.addAll(singlePass);
+                } else if (tagsIter.hasNext()) {
+                    List<Callable<ChangeLogSet>> fetches = new ArrayList<>();
+
+                    while (tagsIter.hasNext()) {
+                        endTag = tagsIter.next();
+
+                        String rangeStartTag = startTag;
+                        String rangeEndTag = endTag;
+                        fetches.add(() -> {
+                            String endRevision = getRevisionForTag(rangeEndTag, repository, provider);
+                            String startRevision = getRevisionForTag(rangeStartTag, repository, provider);
+                            ChangeLogSet changeLogSet =
+                                    getTagRange(repository, provider, startRevision, endRevision);
+
+                            changeLogSet.setStartVersion(new ScmRevision(rangeStartTag));
+                            changeLogSet.setEndVersion(new ScmRevision(rangeEndTag));
+
+                            // drops the filtered out commits before the other ranges are fetched
+                            changeSetFilter.filter(changeLogSet);
+                            return changeLogSet;
+                        });
+
+                        startTag = endTag;
+                    }
+
+                    changeSets.addAll(fetchRanges(fetches));
+                } else {
+                    String startRevision = getRevisionForTag(startTag, repository, provider);
+                    String endRevision = getRevisionForTag(endTag, repository, provider);
+                    result = changeLog(
+                            repository,
+                            (narrowed, fileSet) -> provider.changeLog(
+                                    narrowed, fileSet, new ScmRevision(startRevision), new ScmRevision(endRevision)));
+
+                    report.checkResult(result);
+                    result.getChangeLog().setStartVersion(new ScmRevision(startTag));
+                    result.getChangeLog().setEndVersion(null);
+                    changeSets.add(result.getChangeLog());
+                }
+
+                storeTagRevisions();
+            } else if ("date".equals(report.type)) {
+                Iterator<String> dateIter = report.dates.iterator();
+
+                String startDate = dateIter.next();
+                String endDate = null;
+
+                if (dateIter.hasNext()) {
+                    List<Callable<ChangeLogSet>> fetches = new ArrayList<>();
+
+                    while (dateIter.hasNext()) {
+                        endDate = dateIter.next();
+
+                        Date rangeStartDate = parseDate(startDate);
+                        Date rangeEndDate = parseDate(endDate);
+                        fetches.add(() -> {
+                            ChangeLogSet changeLogSet =
+                                    getDateRange(repository, provider, rangeStartDate, rangeEndDate);
+                            changeSetFilter.filter(changeLogSet);
+                            return changeLogSet;
+                        });
+
+                        startDate = endDate;
+                    }
+
+                    changeSets.addAll(fetchRanges(fetches));
+                } else {
+                    Date rangeStartDate = parseDate(startDate);
+                    Date rangeEndDate = parseDate(endDate);
+                    result = changeLog(
+                            repository,
+                            (narrowed, fileSet) -> provider.changeLog(
+                                    narrowed, fileSet, rangeStartDate, rangeEndDate, 0, (ScmBranch) null));
+
+                    report.checkResult(result);
+
+                    changeSets.add(result.getChangeLog());
+                }
+            } else {
+                throw new MavenReportException("The type '" + report.type + "' isn't supported.");
+            }
+            return changeSets;
+
+        } catch (ScmException e) {
+            throw new MavenReportException("Cannot run changelog command : ", e);
+        } catch (MojoExecutionException e) {
+            throw new MavenReportException("An error has occurred during changelog command : ", e);
+        }
+    }
+
+    /**
+     * Keeps the most recent change sets, for the providers which don't support a limit and report all of them. The
+     * date of the oldest one kept starts the range, so that the report is titled with its date.
+     *
+     * @param entries the change sets reported by the provider
+     * @param limit   the number of change sets to keep
+     * @return the most recent change sets, in the order of the provider
+     */
+    private static ChangeLogSet getNewest(List<ChangeSet> entries, int limit) {
+        List<ChangeSet> newest = entries;
+        if (entries.size() > limit) {
+            List<ChangeSet> byDate = new ArrayList<>(entries);
+            byDate.sort((changeSet0, changeSet1) -> compareDates(changeSet1.getDate(), changeSet0.getDate()));
+            Set<ChangeSet> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+            kept.addAll(byDate.subList(0, limit));
+
+            newest = new ArrayList<>(limit);
+            for (ChangeSet entry : entries) {
+                if (kept.contains(entry)) {
+                    newest.add(entry);
+                }
+            }
+        }
+
+        Date oldest = null;
+        for (ChangeSet entry : newest) {
+            if (entry.getDate() != null && (oldest == null || entry.getDate().before(oldest))) {
+                oldest = entry.getDate();
+            }
+        }
+        return new ChangeLogSet(newest, oldest, null);
+    }
+
+    private static int compareDates(Date date0, Date date1) {
+        // a change set without a date is the oldest
+        long time0 = date0 != null ? date0.getTime() : Long.MIN_VALUE;
+        long time1 = date1 != null ? date1.getTime() : Long.MIN_VALUE;
+        return Long.compare(time0, time1);
+    }
+
+    /**
+     * runs the fetches of independent ranges, with up to <code>fetchThreads</code> at the same time. After a fetch
+     * failed no other fetch is started, the failures of the fetches already running are added to the first one.
+     *
+     * @param fetches the fetches of the ranges
+     * @return the changed sets of the ranges, in the order of the fetches
+     */
+    private List<ChangeLogSet> fetchRanges(List<Callable<ChangeLogSet>> fetches)
+            throws ScmException, MojoExecutionException, MavenReportException {
+        List<ChangeLogSet> changeSets = new ArrayList<>(fetches.size());
+
+        if (report.fetchThreads <= 1 || fetches.size() <= 1) {
+            for (Callable<ChangeLogSet> fetch : fetches) {
+                try {
+                    changeSets.add(fetch.call());
+                } catch (Exception e) {
+                    throw rethrow(e);
+                }
+            }
+            return changeSets;
+        }
+
+        // resolve the lazily initialized state before it is shared between the threads
+        report.getConnection();
+        getRangeCache();
+        getTagRevisionCache();
+        getIncludeRoots();
+
+        int threads = Math.min(report.fetchThreads, fetches.size());
+        log.debug("Fetching " + fetches.size() + " ranges with " + threads + " threads");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<ChangeLogSet>> futures = new ArrayList<>(fetches.size());
+        try {
+            for (Callable<ChangeLogSet> fetch : fetches) {
+                futures.add(executor.submit(() -> {
+                    if (failed.get()) {
+                        return null;
+                    }
+                    try {
+                        return fetch.call();
+                    } catch (Exception e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }));
+            }
+            executor.shutdown();
+
+            Exception failure = null;
+            for (Future<ChangeLogSet> future : futures) {
+                try {
+                    changeSets.add(future.get());
+                } catch (ExecutionException e) {
+                    Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw rethrow(failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MavenReportException("Interrupted while fetching the changed sets.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return changeSets;
+    }
+
+    private static MavenReportException rethrow(Exception e)
+            throws ScmException, MojoExecutionException, MavenReportException {
+        if (e instanceof ScmException) {
+            throw (ScmException) e;
+        } else if (e instanceof MojoExecutionException) {
+            throw (MojoExecutionException) e;
+        } else if (e instanceof MavenReportException) {
+            throw (MavenReportException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        return new MavenReportException("An error has occurred during changelog command : ", e);
+    }
+
+    /**
+     * fetches the changed sets between each pair of consecutive tags with a single log over all pairs that aren't
+     * cached yet, and splits it by the revisions of the tags
+     *
+     * @return the changed sets of each pair of tags, or <code>null</code> if the revisions of the repository can't be
+     *         ordered, in which case each pair has to be fetched on its own
+     */
+    private List<ChangeLogSet> getTagRangesInSinglePass(ScmRepository repository, ScmProvider provider)
+            throws ScmException, MojoExecutionException, MavenReportException {
+        if (!repository.getProvider().equals("svn")) {
+            log.warn("singlePassTags is only supported for Subversion, fetching each pair of tags on its own.");
+            return null;
+        }
+
+        List<String> revisions = new ArrayList<>(report.tags.size());
+        for (String tag : report.tags) {
+            String revision = getRevisionForTag(tag, repository, provider);
+            if (TagRangeSplitter.parseRevision(revision) == null) {
+                return null;
+            }
+            revisions.add(revision);
+        }
+
+        RangeCache rangeCache = getRangeCache();
+        ChangeLogSet[] ranges = new ChangeLogSet[report.tags.size() - 1];
+        String[] keys = new String[ranges.length];
+        long low = Long.MAX_VALUE;
+        long high = Long.MIN_VALUE;
+
+        for (int i = 0; i < ranges.length; i++) {
+            String startRevision = revisions.get(i);
+            String endRevision = revisions.get(i + 1);
+
+            if (rangeCache != null) {
+                keys[i] = RangeCache.key(
+                        "tag", report.getConnection(), getPathScope(), startRevision, endRevision);
+                ranges[i] = getRangeCache(rangeCache, keys[i], startRevision + ".." + endRevision);
+            }
+
+            if (ranges[i] == null) {
+                long start = TagRangeSplitter.parseRevision(startRevision);
+                long end = TagRangeSplitter.parseRevision(endRevision);
+                low = Math.min(low, Math.min(start, end));
+                high = Math.max(high, Math.max(start, end));
+            }
+        }
+
+        if (low <= high) {
+            log.info("Fetching the changed sets of revisions " + low + " to " + high + " in a single pass");
+
+            ScmRevision lowRevision = new ScmRevision(String.valueOf(low));
+            ScmRevision highRevision = new ScmRevision(String.valueOf(high));
+            ChangeLogScmResult result = changeLog(
+                    repository,
+                    (narrowed, fileSet) -> provider.changeLog(narrowed, fileSet, lowRevision, highRevision));
+
+            report.checkResult(result);
+
+            ChangeLogSet all = result.getChangeLog();
+            for (int i = 0; i < ranges.length; i++) {
+                if (ranges[i] == null) {
+                    ranges[i] = TagRangeSplitter.split(
+                            all,
+                            TagRangeSplitter.parseRevision(revisions.get(i)),
+                            TagRangeSplitter.parseRevision(revisions.get(i + 1)));
+                    if (ranges[i] == null) {
+                        log.warn("The changed sets have no revision, fetching each pair of tags on its own.");
+                        return null;
+                    }
+
+                    if (keys[i] != null) {
+                        putRangeCache(rangeCache, keys[i], ranges[i]);
+                    }
+                }
+            }
+        }
+
+        List<ChangeLogSet> changeSets = new ArrayList<>(ranges.length);
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i].setStartVersion(new ScmRevision(report.tags.get(i)));
+            ranges[i].setEndVersion(new ScmRevision(report.tags.get(i + 1)));
+            changeSets.add(ranges[i]);
+        }
+        return changeSets;
+    }
+
+    /**
+     * Resolves the given tag to the revision number.
+     *
+     * @param tag
+     * @param repository
+     * @param provider
+     * @return
+     * @throws ScmException
+     */
+    private String getRevisionForTag(final String tag, final ScmRepository repository, final ScmProvider provider)
+            throws ScmException {
+        if (repository.getProvider().equals("svn")) {
+            if (tag == null) {
+                return "HEAD";
+            }
+            SvnScmProviderRepository svnRepository = (SvnScmProviderRepository) repository.getProviderRepository();
+
+            TagRevisionCache tagRevisions = getTagRevisionCache();
+            String tagUrl = SvnTagBranchUtils.resolveTagUrl(svnRepository, new ScmTag(tag));
+            listTagRevisions(svnRepository, tagRevisions);
+            String revision = tagRevisions.get(tagUrl);
+            if (revision != null) {
+                log.debug(String.format("Tag '%s' was resolved to revision '%s'", tag, revision));
+                return revision;
+            }
+
+            SvnInfoCommandExpanded infoCommand = new SvnInfoCommandExpanded();
+
+            InfoScmResult infoScmResult = infoCommand.executeInfoTagCommand(
+                    svnRepository, new ScmFileSet(report.basedir), tag, null, false, null);
+            if (infoScmResult.getInfoItems().isEmpty()) {
+                throw new ScmException("There is no tag named '" + tag + "' in the Subversion repository.");
+            }
+            InfoItem infoItem = infoScmResult.getInfoItems().get(0);
+            revision = infoItem.getLastChangedRevision();
+            log.info(String.format("Resolved tag '%s' to revision '%s'", tag, revision));
+            tagRevisions.put(tagUrl, revision);
+            return revision;
+        }
+        return tag;
+    }
+
+    /**
+     * Resolves all tags below the tag base with a single <code>svn list</code>, once per build. The listing replaces
+     * the resolutions kept from previous builds, so that tags created again since aren't resolved to their former
+     * revision. Tags it doesn't find are left to be resolved one at a time.
+     */
+    private synchronized void listTagRevisions(SvnScmProviderRepository svnRepository, TagRevisionCache tagRevisions) {
+        String tagBase = SvnTagBranchUtils.resolveTagBase(svnRepository);
+        if (tagsListed || tagRevisions.isListed(tagBase)) {
+            return;
+        }
+        tagsListed = true;
+
+        try {
+            Map<String, String> revisions =
+                    new SvnInfoCommandExpanded().executeListTagsCommand(svnRepository, new ScmFileSet(report.basedir));
+            Map<String, String> tagUrls = new HashMap<>();
+            for (Map.Entry<String, String> entry : revisions.entrySet()) {
+                String tagUrl = SvnTagBranchUtils.resolveTagUrl(svnRepository, new ScmTag(entry.getKey()));
+                tagUrls.put(tagUrl, entry.getValue());
+            }
+            tagRevisions.putListing(tagBase, tagUrls);
+            log.info("Resolved " + revisions.size() + " tags below " + tagBase);
+        } catch (ScmException e) {
+            log.warn("Can't list the tags, resolving them one at a time: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the tag resolutions of this build, kept in <code>rangeCacheDirectory</code> when closed ranges are
+     *         cached
+     */
+    private synchronized TagRevisionCache getTagRevisionCache() {
+        if (tagRevisionCache == null) {
+            RangeCache rangeCache = getRangeCache();
+            File file = rangeCache != null
+                    ? new File(getRangeCacheDirectory(), "tag-revisions.properties")
+                    : null;
+            // shared by the report mojos of the build
+            MavenProject topLevelProject = report.session != null ? report.session.getTopLevelProject() : null;
+            tagRevisionCache = new TagRevisionCache(
+                    file,
+                    topLevelProject != null
+                            ? TagRevisionCache.Resolutions.of(topLevelProject)
+                            : new TagRevisionCache.Resolutions());
+            try {
+                tagRevisionCache.load();
+            } catch (IOException e) {
+                log.warn("Ignoring the tag revisions in " + file + ": " + e.getMessage());
+            }
+        }
+        return tagRevisionCache;
+    }
+
+    private void storeTagRevisions() {
+        if (tagRevisionCache != null) {
+            try {
+                tagRevisionCache.store();
+            } catch (IOException e) {
+                // the tags are just resolved again next time
+                log.warn("Can't store the tag revisions in " + getRangeCacheDirectory() + ": "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the filter of the commits by their author and message
+     */
+    private ChangeSetFilter getChangeSetFilter() {
+        return new ChangeSetFilter(report.includeAuthors, report.excludeAuthors, report.messageExcludePattern);
+    }
+
+    /**
+     * filters out unwanted commits and files from the changesets
+     */
+    private void filter(List<ChangeLogSet> changeSets) {
+        ChangeSetFilter changeSetFilter = getChangeSetFilter();
+        if (changeSetFilter.isFiltering()) {
+            for (ChangeLogSet changeLogSet : changeSets) {
+                changeSetFilter.filter(changeLogSet);
+            }
+        }
+
+        if (report.includes == null && report.excludes == null) {
+            return;
+        }
+        ChangeFileFilter fileFilter = new ChangeFileFilter(report.includes, report.excludes);
+
+        // decides on all change sets at once, then keeps the files and the change sets that are reported
+        List<ChangeSet> entries = new ArrayList<>();
+        for (ChangeLogSet changeLogSet : changeSets) {
+            entries.addAll(changeLogSet.getChangeSets());
+        }
+        Iterator<List<ChangeFile>> selected = fileFilter.select(entries).iterator();
+
+        for (ChangeLogSet changeLogSet : changeSets) {
+            List<ChangeSet> set = changeLogSet.getChangeSets();
+            List<ChangeSet> kept = new ArrayList<>(set.size());
+            for (ChangeSet changeSet : set) {
+                List<ChangeFile> files = selected.next();
+                if (!files.isEmpty()) {
+                    if (files != changeSet.getFiles()) {
+                        changeSet.setFiles(files);
+                    }
+                    kept.add(changeSet);
+                }
+            }
+            changeLogSet.setChangeSets(kept);
+        }
+
+        if (log.isDebugEnabled()) {
+            long hits = fileFilter.getHits();
+            long total = hits + fileFilter.getMisses();
+            // CHECKSTYLE_OFF: MagicNumber
+            long rate = total == 0 ? 0 : hits * 100 / total;
+            // CHECKSTYLE_ON: MagicNumber
+            log.debug("Filtered " + total + " changed files, " + hits + " (" + rate + "%) by cached decisions");
+        }
+    }
+
+    /**
+     * Converts the localized date string pattern to date object.
+     *
+     * @return A date
+     */
+    private Date parseDate(String date) throws MojoExecutionException {
+        if (date == null || date.trim().isEmpty()) {
+            return null;
+        }
+
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+
+        try {
+            return formatter.parse(date);
+        } catch (ParseException e) {
+            throw new MojoExecutionException("Please use this date pattern: " + formatter.toLocalizedPattern(), e);
+        }
+    }
+
+    /**
+     * fetches the changed sets between two tags, the range is kept in the range cache since the history between two
+     * tags doesn't change. Only Subversion tags are resolved to revisions, the tags of the other providers are kept as
+     * names, which may be moved to other commits, so their ranges aren't cached.
+     *
+     * @return the changed sets between the revisions
+     */
+    private ChangeLogSet getTagRange(
+            ScmRepository repository, ScmProvider provider, String startRevision, String endRevision)
+            throws ScmException, MojoExecutionException, MavenReportException {
+        RangeCache rangeCache = getRangeCache();
+        String key = null;
+
+        if (rangeCache != null
+                && "svn".equals(repository.getProvider())
+                && endRevision != null
+                && !"HEAD".equals(endRevision)) {
+            key = RangeCache.key("tag", report.getConnection(), getPathScope(), startRevision, endRevision);
+
+            ChangeLogSet cached = getRangeCache(rangeCache, key, startRevision + ".." + endRevision);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ChangeLogScmResult result = changeLog(
+                repository,
+                (narrowed, fileSet) -> provider.changeLog(
+                        narrowed, fileSet, new ScmRevision(startRevision), new ScmRevision(endRevision)));
+
+        report.checkResult(result);
+
+        if (key != null) {
+            putRangeCache(rangeCache, key, result.getChangeLog());
+        }
+
+        return result.getChangeLog();
+    }
+
+    /**
+     * fetches the changed sets between two dates, the range is kept in the range cache once it ended before today
+     *
+     * @return the changed sets between the dates
+     */
+    private ChangeLogSet getDateRange(ScmRepository repository, ScmProvider provider, Date startDate, Date endDate)
+            throws ScmException, MojoExecutionException, MavenReportException {
+        RangeCache rangeCache = getRangeCache();
+        String key = null;
+
+        if (rangeCache != null && endDate != null && endDate.before(getStartOfToday())) {
+            key = RangeCache.key(
+                    "date",
+                    report.getConnection(),
+                    getPathScope(),
+                    String.valueOf(startDate.getTime()),
+                    String.valueOf(endDate.getTime()));
+
+            ChangeLogSet cached = getRangeCache(rangeCache, key, startDate + ".." + endDate);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ChangeLogScmResult result = changeLog(
+                repository,
+                (narrowed, fileSet) ->
+                        provider.changeLog(narrowed, fileSet, startDate, endDate, 0, (ScmBranch) null));
+
+        report.checkResult(result);
+
+        if (key != null) {
+            putRangeCache(rangeCache, key, result.getChangeLog());
+        }
+
+        return result.getChangeLog();
+    }
+
+    private static Date getStartOfToday() {
+        Calendar today = Calendar.getInstance();
+        today.set(Calendar.HOUR_OF_DAY, 0);
+        today.set(Calendar.MINUTE, 0);
+        today.set(Calendar.SECOND, 0);
+        today.set(Calendar.MILLISECOND, 0);
+        return today.getTime();
+    }
+
+    /**
+     * @return the location of <code>basedir</code> in the project and the paths below it the changed sets are fetched
+     *         for, the part of the repository a range is fetched for
+     */
+    private String getPathScope() {
+        File directory = getFetchDirectory();
+        String scope = directory.getAbsolutePath();
+        if (report.project != null && report.project.getBasedir() != null) {
+            Path projectPath = report.project.getBasedir().toPath().toAbsolutePath().normalize();
+            Path path = directory.toPath().toAbsolutePath().normalize();
+            if (path.startsWith(projectPath)) {
+                scope = projectPath.relativize(path).toString().replace('\\', '/');
+            }
+        }
+        return getIncludeRoots().isEmpty() ? scope : scope + getIncludeRoots();
+    }
+
+    /**
+     * runs a changelog command for the directory the changed sets are fetched for, or once for each path below it the
+     * includes are confined to
+     *
+     * @return the result of the command
+     */
+    private ChangeLogScmResult changeLog(ScmRepository repository, NarrowedChangeLog.Command command)
+            throws ScmException {
+        return NarrowedChangeLog.changeLog(
+                repository, getWorkingCopy(), getFetchDirectory(), getIncludeRoots(), command);
+    }
+
+    /**
+     * @return the directory the url of the connection points to
+     */
+    private File getWorkingCopy() {
+        return report.project != null && report.project.getBasedir() != null
+                ? report.project.getBasedir()
+                : report.basedir;
+    }
+
+    /**
+     * @return the paths below <code>basedir</code> all included files are in, empty if that's all of it or if the
+     *         provider can't fetch the changed sets of single paths
+     */
+    private List<File> getIncludeRoots() {
+        if (includeRoots == null) {
+            includeRoots = Collections.emptyList();
+
+            String provider = getProvider();
+            Path workingCopy = getWorkingCopy().toPath().toAbsolutePath().normalize();
+            // the url of a Subversion connection can only be extended to the directories of its working copy
+            if (NarrowedChangeLog.canNarrow(provider)
+                    && (!"svn".equals(provider)
+                            || report.basedir.toPath().toAbsolutePath().normalize().startsWith(workingCopy))) {
+                includeRoots = ChangeFileFilter.getIncludeRoots(report.includes, report.basedir);
+            }
+
+            if (!includeRoots.isEmpty()) {
+                log.debug("Fetching the changed sets of each of " + includeRoots + " on its own");
+            }
+        }
+        return includeRoots;
+    }
+
+    /**
+     * @return the cache of closed ranges, or <code>null</code> if it is disabled or has no location
+     */
+    private RangeCache getRangeCache() {
+        if (!report.cacheClosedRanges) {
+            return null;
+        }
+
+        if (rangeCacheDirectory == null) {
+            if (report.settings == null || report.settings.getLocalRepository() == null) {
+                return null;
+            }
+            rangeCacheDirectory = new File(report.settings.getLocalRepository(), ".cache/maven-changelog-plugin");
+        }
+
+        return new RangeCache(rangeCacheDirectory);
+    }
+
+    private ChangeLogSet getRangeCache(RangeCache rangeCache, String key, String range) {
+        try {
+            ChangeLogSet cached = rangeCache.get(key);
+            if (cached != null) {
+                log.debug("Using cached changed sets for " + range);
+            }
+            return cached;
+        } catch (IOException e) {
+            log.warn("Ignoring the cached changed sets for " + range + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void putRangeCache(RangeCache rangeCache, String key, ChangeLogSet changeLogSet) {
+        try {
+            rangeCache.put(key, changeLogSet);
+        } catch (IOException e) {
+            // the range is just fetched again next time
+            log.warn("Can't cache the changed sets in " + rangeCacheDirectory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the directory the changed sets are fetched for
+     */
+    private File getFetchDirectory() {
+        return fetchDirectory != null ? fetchDirectory : report.basedir;
+    }
+
+    private void setFetchDirectory(File fetchDirectory) {
+        this.fetchDirectory = fetchDirectory;
+    }
+
+    /**
+     * @return the directory of the range cache, <code>null</code> until {@link #getRangeCache()} resolved it
+     */
+    private File getRangeCacheDirectory() {
+        return rangeCacheDirectory;
+    }
+}
@@ -19,12 +19,25 @@
 package org.apache.maven.plugins.changelog;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import org.apache.maven.scm.ChangeFile;
@@ -46,9 +59,26 @@ public class ChangeLogHandler extends DefaultHandler {
 
     private static final TimeZone TIMEZONE = TimeZone.getTimeZone(TIMEZONE_STRING);
 
+    static final String DEFAULT_DATE_PATTERN = "yyyy-MM-dd";
+
+    static final String DEFAULT_TIME_PATTERN = "HH:mm:ss";
+
+    private static final ZoneId TIMEZONE_ID = TIMEZONE.toZoneId();
+
+    // SimpleDateFormat switches to the Julian calendar before the Gregorian cutover, java.time doesn't
+    private static final int LAST_JULIAN_YEAR = 1582;
+
+    private static final long NO_MATCH = Long.MIN_VALUE;
+
+    // marks patterns java.time can't handle, those are left to SimpleDateFormat
+    private static final DateTimeFormatter UNSUPPORTED = DateTimeFormatter.ISO_INSTANT;
+
+    // DateTimeFormatter is immutable and thread-safe, so the formatters are shared by all parsers
+    private static final ConcurrentMap<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
     private final Collection<ChangeLogSet> changeSets;
 
-    private String bufData = "";
+    private final StringBuilder bufData = new StringBuilder();
 
     private ChangeFile bufFile;
 
@@ -60,7 +90,7 @@ public class ChangeLogHandler extends DefaultHandler {
 
     private String currentPattern;
 
-    private final Pattern nameRegex = Pattern.compile(" \\(from [^:]+:\\d+\\)");
+    private static final Pattern NAME_REGEX = Pattern.compile(" \\(from [^:]+:\\d+\\)");
 
     /**
      * contructor
@@ -75,7 +105,7 @@ public class ChangeLogHandler extends DefaultHandler {
      * {@inheritDoc}
      */
     public void characters(char[] ch, int start, int length) throws SAXException {
-        bufData += new String(ch, start, length);
+        bufData.append(ch, start, length);
     }
 
     /**
@@ -94,39 +124,26 @@ public class ChangeLogHandler extends DefaultHandler {
             bufEntry.addFile(bufFile);
         } else if ("date".equals(qName)) {
             try {
-                long ms = 0;
-                if (bufEntry.getDate() != null) {
-                    ms = bufEntry.getDate().getTime();
-                }
-                bufEntry.setDate(new Date(
-                        ms + new SimpleDateFormat(currentPattern).parse(bufData).getTime()));
+                bufEntry.setDate(addDate(bufEntry.getDate(), currentPattern, bufData.toString()));
             } catch (ParseException e) {
                 throw new SAXException(e);
             }
         } else if ("time".equals(qName)) {
             try {
-                long ms = 0;
-                if (bufEntry.getDate() != null) {
-                    ms = bufEntry.getDate().getTime();
-                }
-                SimpleDateFormat simpleDateFormat = new SimpleDateFormat(currentPattern);
-                // MCHANGELOG-68 Adjust for time zone when parsing the time
-                simpleDateFormat.setTimeZone(TIMEZONE);
-                // Adjust for time zone when adding up the milliseconds
-                bufEntry.setDate(new Date(ms + simpleDateFormat.parse(bufData).getTime() + TIMEZONE.getRawOffset()));
+                bufEntry.setDate(addTime(bufEntry.getDate(), currentPattern, bufData.toString()));
             } catch (ParseException e) {
                 throw new SAXException(e);
             }
         } else if ("author".equals(qName)) {
-            bufEntry.setAuthor(bufData);
+            bufEntry.setAuthor(bufData.toString());
         } else if ("msg".equals(qName)) {
-            bufEntry.setComment(bufData);
+            bufEntry.setComment(bufData.toString());
         }
 
         if ("revision".equals(qName)) {
-            bufFile.setRevision(bufData);
+            bufFile.setRevision(bufData.toString());
         } else if ("name".equals(qName)) {
-            bufFile.setName(nameRegex.matcher(bufData).replaceFirst(""));
+            bufFile.setName(stripCopySource(bufData.toString()));
         }
     }
 
@@ -134,7 +151,7 @@ public class ChangeLogHandler extends DefaultHandler {
      * {@inheritDoc}
      */
     public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
-        bufData = "";
+        bufData.setLength(0);
 
         if ("file".equals(qName)) {
             bufFile = new ChangeFile("");
@@ -143,46 +160,24 @@ public class ChangeLogHandler extends DefaultHandler {
         } else if ("date".equals(qName)) {
             currentPattern = attributes.getValue("pattern");
             if (currentPattern == null) {
-                currentPattern = "yyyy-MM-dd";
+                currentPattern = DEFAULT_DATE_PATTERN;
             }
         } else if ("time".equals(qName)) {
             currentPattern = attributes.getValue("pattern");
             if (currentPattern == null) {
-                currentPattern = "HH:mm:ss";
+                currentPattern = DEFAULT_TIME_PATTERN;
             }
         } else if ("changeset".equals(qName)) {
             bufEntries = new LinkedList<>();
 
             currentPattern = attributes.getValue("datePattern");
             if (currentPattern == null) {
-                currentPattern = "yyyy-MM-dd";
+                currentPattern = DEFAULT_DATE_PATTERN;
             }
 
-            SimpleDateFormat formatter = new SimpleDateFormat(currentPattern);
-
-            String start = attributes.getValue("start");
+            Date startDate = parseSetDate(currentPattern, attributes.getValue("start"), "start");
 
-            String end = attributes.getValue("end");
-
-            Date startDate = null;
-
-            Date endDate = null;
-
-            if (start != null) {
-                try {
-                    startDate = formatter.parse(start);
-                } catch (ParseException e) {
-                    throw new SAXException("Can't parse start date '" + start + "'.", e);
-                }
-            }
-
-            if (end != null) {
-                try {
-                    endDate = formatter.parse(end);
-                } catch (ParseException e) {
-                    throw new SAXException("Can't parse end date '" + end + "'.", e);
-                }
-            }
+            Date endDate = parseSetDate(currentPattern, attributes.getValue("end"), "end");
 
             bufSet = new ChangeLogSet(bufEntries, startDate, endDate);
             String startVersion = attributes.getValue("startVersion");
@@ -195,4 +190,225 @@ public class ChangeLogHandler extends DefaultHandler {
             }
         }
     }
+
+    /**
+     * Adds the date found in a <code>date</code> element to the date already known for a changelog entry.
+     *
+     * @param current the date collected so far for the entry, may be <code>null</code>
+     * @param pattern the pattern of the <code>date</code> element
+     * @param text    the content of the <code>date</code> element
+     * @return the combined date
+     * @throws ParseException if the content does not match the pattern
+     */
+    static Date addDate(Date current, String pattern, String text) throws ParseException {
+        long ms = current != null ? current.getTime() : 0;
+
+        ZoneId zone = ZoneId.systemDefault();
+
+        long date = DEFAULT_DATE_PATTERN.equals(pattern) ? parseDefaultDate(text, zone) : NO_MATCH;
+        if (date == NO_MATCH) {
+            date = parse(pattern, text, zone);
+        }
+
+        return new Date(ms + date);
+    }
+
+    /**
+     * Adds the time found in a <code>time</code> element to the date already known for a changelog entry.
+     *
+     * @param current the date collected so far for the entry, may be <code>null</code>
+     * @param pattern the pattern of the <code>time</code> element
+     * @param text    the content of the <code>time</code> element
+     * @return the combined date
+     * @throws ParseException if the content does not match the pattern
+     */
+    static Date addTime(Date current, String pattern, String text) throws ParseException {
+        long ms = current != null ? current.getTime() : 0;
+
+        // MCHANGELOG-68 Adjust for time zone when parsing the time
+        long time = DEFAULT_TIME_PATTERN.equals(pattern) ? parseDefaultTime(text) : NO_MATCH;
+        if (time == NO_MATCH) {
+            time = parse(pattern, text, TIMEZONE_ID);
+        }
+
+        // Adjust for time zone when adding up the milliseconds
+        return new Date(ms + time + TIMEZONE.getRawOffset());
+    }
+
+    /**
+     * Parses the <code>start</code> or <code>end</code> attribute of a <code>changeset</code> element.
+     *
+     * @param pattern   the <code>datePattern</code> of the changeset
+     * @param value     the attribute value, may be <code>null</code>
+     * @param attribute the attribute name, used in the error message
+     * @return the parsed date or <code>null</code> if there is no value
+     * @throws SAXException if the value does not match the pattern
+     */
+    static Date parseSetDate(String pattern, String value, String attribute) throws SAXException {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return new Date(parse(pattern, value, ZoneId.systemDefault()));
+        } catch (ParseException e) {
+            throw new SAXException("Can't parse " + attribute + " date '" + value + "'.", e);
+        }
+    }
+
+    /**
+     * Fast path for the default <code>yyyy-MM-dd</code> date pattern, giving the same result as
+     * {@link SimpleDateFormat} for well formed values.
+     *
+     * @return the start of the day in the given zone, or {@link #NO_MATCH} if the value is not a plain date
+     */
+    private static long parseDefaultDate(String text, ZoneId zone) {
+        // CHECKSTYLE_OFF: MagicNumber
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return NO_MATCH;
+        }
+
+        int year = parseDigits(text, 0, 4);
+        int month = parseDigits(text, 5, 7);
+        int day = parseDigits(text, 8, 10);
+        // CHECKSTYLE_ON: MagicNumber
+
+        if (year <= LAST_JULIAN_YEAR || month < 1 || month > 12 || day < 1 || day > 28
+                && day > YearMonth.of(year, month).lengthOfMonth()) {
+            return NO_MATCH;
+        }
+
+        return LocalDate.of(year, month, day).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Fast path for the default <code>HH:mm:ss</code> time pattern, giving the same result as a
+     * {@link SimpleDateFormat} in the GMT time zone for well formed values.
+     *
+     * @return the milliseconds since midnight, or {@link #NO_MATCH} if the value is not a plain time
+     */
+    private static long parseDefaultTime(String text) {
+        // CHECKSTYLE_OFF: MagicNumber
+        if (text.length() != 8 || text.charAt(2) != ':' || text.charAt(5) != ':') {
+            return NO_MATCH;
+        }
+
+        int hours = parseDigits(text, 0, 2);
+        int minutes = parseDigits(text, 3, 5);
+        int seconds = parseDigits(text, 6, 8);
+
+        if (hours < 0 || minutes < 0 || seconds < 0) {
+            return NO_MATCH;
+        }
+
+        return ((hours * 60L + minutes) * 60L + seconds) * 1000L;
+        // CHECKSTYLE_ON: MagicNumber
+    }
+
+    private static int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            // CHECKSTYLE_OFF: MagicNumber
+            value = value * 10 + (c - '0');
+            // CHECKSTYLE_ON: MagicNumber
+        }
+        return value;
+    }
+
+    /**
+     * Parses a value with a cached {@link DateTimeFormatter}. Like {@link SimpleDateFormat#parse(String)} the
+     * resolution is lenient, trailing text is ignored and missing fields default to the start of the epoch.
+     * Patterns with fields that <code>java.time</code> interprets differently, values it rejects and dates of the
+     * Julian calendar fall back to {@link SimpleDateFormat}.
+     *
+     * @param pattern a {@link SimpleDateFormat} pattern
+     * @param text    the value to parse
+     * @param zone    the time zone to use when the value doesn't contain one
+     * @return the milliseconds since the epoch
+     * @throws ParseException if the value does not match the pattern
+     */
+    private static long parse(String pattern, String text, ZoneId zone) throws ParseException {
+        DateTimeFormatter formatter = FORMATTERS.computeIfAbsent(pattern, ChangeLogHandler::newFormatter);
+
+        if (formatter != UNSUPPORTED) {
+            try {
+                TemporalAccessor parsed = formatter.parse(text, new ParsePosition(0));
+
+                LocalDate date = parsed.query(TemporalQueries.localDate());
+                LocalTime time = parsed.query(TemporalQueries.localTime());
+                ZoneId parsedZone = parsed.query(TemporalQueries.zone());
+
+                if (date == null) {
+                    date = LocalDate.ofEpochDay(0);
+                }
+                date = date.plus(parsed.query(DateTimeFormatter.parsedExcessDays()));
+
+                if (date.getYear() > LAST_JULIAN_YEAR) {
+                    return ZonedDateTime.of(
+                                    date,
+                                    time != null ? time : LocalTime.MIDNIGHT,
+                                    parsedZone != null ? parsedZone : zone)
+                            .toInstant()
+                            .toEpochMilli();
+                }
+            } catch (DateTimeException e) {
+                // let SimpleDateFormat decide, it is more forgiving
+            }
+        }
+
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern);
+        simpleDateFormat.setTimeZone(TimeZone.getTimeZone(zone));
+        return simpleDateFormat.parse(text).getTime();
+    }
+
+    private static DateTimeFormatter newFormatter(String pattern) {
+        if (!isNumericPattern(pattern)) {
+            return UNSUPPORTED;
+        }
+
+        try {
+            return DateTimeFormatter.ofPattern(pattern).withResolverStyle(ResolverStyle.LENIENT);
+        } catch (IllegalArgumentException e) {
+            return UNSUPPORTED;
+        }
+    }
+
+    /**
+     * Checks that a pattern only uses numeric fields which <code>java.time</code> parses exactly like
+     * {@link SimpleDateFormat}: no zone or month names, no abbreviated years (<code>y</code> or <code>yy</code>, which
+     * {@link SimpleDateFormat} parses relative to the century) and no fractions.
+     */
+    static boolean isNumericPattern(String pattern) {
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                int count = 1;
+                while (i + 1 < pattern.length() && pattern.charAt(i + 1) == c) {
+                    count++;
+                    i++;
+                }
+                if ("yMdHms".indexOf(c) < 0 || c == 'y' && count <= 2 || c == 'M' && count > 2) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the <code> (from path:revision)</code> suffix svn adds to copied files.
+     *
+     * @param name the file name as found in the xml document
+     * @return the file name without copy source
+     */
+    static String stripCopySource(String name) {
+        return NAME_REGEX.matcher(name).replaceFirst("");
+    }
 }
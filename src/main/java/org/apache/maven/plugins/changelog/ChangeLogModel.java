@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+
+/**
+ * The changed sets of a module with what the changelog, dev-activity and file-activity reports show of them. It is
+ * built once per module and build by the first report mojo, and the others render it as is, without loading or
+ * walking the changed sets again.
+ *
+ * @since 3.0.0
+ */
+final class ChangeLogModel {
+    private final List<ChangeLogSet> changeLogSets;
+
+    private final Map<ChangeLogSet, Summary> summaries = new IdentityHashMap<>();
+
+    /**
+     * @param changeLogSets the changed sets, which must not be changed afterwards
+     */
+    ChangeLogModel(List<ChangeLogSet> changeLogSets) {
+        this.changeLogSets = changeLogSets;
+        for (ChangeLogSet set : changeLogSets) {
+            summaries.put(set, new Summary(set.getChangeSets()));
+        }
+    }
+
+    private ChangeLogModel() {
+        this.changeLogSets = new ArrayList<>();
+    }
+
+    /**
+     * Pulls the changed sets from a changelog xml document, summarizing each change set as it is read instead of
+     * walking the changed sets again once the document is loaded.
+     *
+     * @param reader the reader of the document
+     * @return the model of the changed sets in the document
+     * @throws IOException when an error occurred while reading or parsing the document
+     */
+    static ChangeLogModel read(ChangeLogReader reader) throws IOException {
+        ChangeLogModel model = new ChangeLogModel();
+
+        ChangeLogSet set;
+        while ((set = reader.nextChangeLogSet()) != null) {
+            Summary summary = new Summary();
+
+            ChangeSet changeSet;
+            while ((changeSet = reader.nextChangeSet()) != null) {
+                set.getChangeSets().add(changeSet);
+                summary.add(changeSet);
+            }
+
+            model.changeLogSets.add(set);
+            model.summaries.put(set, summary.finish());
+        }
+
+        return model;
+    }
+
+    /**
+     * @return the changed sets
+     */
+    List<ChangeLogSet> getChangeLogSets() {
+        return changeLogSets;
+    }
+
+    /**
+     * @param set one of the changed sets, or another one to summarize now
+     * @return the summary of the changed set
+     */
+    synchronized Summary getSummary(ChangeLogSet set) {
+        return summaries.computeIfAbsent(set, s -> new Summary(s.getChangeSets()));
+    }
+
+    /**
+     * What the reports show of a changed set, computed in a single pass over its change sets.
+     */
+    static final class Summary {
+        private final List<ChangeSet> changeSets;
+
+        private final Map<String, List<ChangeSet>> commits = new HashMap<>();
+
+        private final Map<String, Map<String, ChangeFile>> files = new HashMap<>();
+
+        private final Map<String, List<ChangeFile>> revisions = new HashMap<>();
+
+        private List<List<ChangeFile>> fileRevisions;
+
+        Summary(Collection<ChangeSet> entries) {
+            changeSets = new ArrayList<>(entries.size());
+            for (ChangeSet entry : entries) {
+                add(entry);
+            }
+            finish();
+        }
+
+        private Summary() {
+            changeSets = new ArrayList<>();
+        }
+
+        private void add(ChangeSet entry) {
+            changeSets.add(entry);
+
+            String author = entry.getAuthor();
+            commits.computeIfAbsent(author, k -> new LinkedList<>()).add(entry);
+
+            Map<String, ChangeFile> authorFiles = files.computeIfAbsent(author, k -> new HashMap<>());
+            for (ChangeFile file : entry.getFiles()) {
+                authorFiles.put(file.getName(), file);
+                revisions.computeIfAbsent(file.getName(), k -> new LinkedList<>()).add(file);
+            }
+        }
+
+        /**
+         * sorts what was added, once all change sets are
+         */
+        private Summary finish() {
+            changeSets.sort((changeSet0, changeSet1) -> changeSet1.getDate().compareTo(changeSet0.getDate()));
+
+            fileRevisions = new LinkedList<>(revisions.values());
+            fileRevisions.sort(new FileActivityComparator());
+            revisions.clear();
+
+            return this;
+        }
+
+        /**
+         * @return the change sets, newest first
+         */
+        List<ChangeSet> getChangeSets() {
+            return changeSets;
+        }
+
+        /**
+         * @return the number of distinct files changed
+         */
+        int getFilesChanged() {
+            return fileRevisions.size();
+        }
+
+        /**
+         * @return the change sets of each author
+         */
+        Map<String, List<ChangeSet>> getCommits() {
+            return commits;
+        }
+
+        /**
+         * @return the files changed by each author, by their name
+         */
+        Map<String, Map<String, ChangeFile>> getFiles() {
+            return files;
+        }
+
+        /**
+         * @return the revisions of each changed file, the most changed file first
+         */
+        List<List<ChangeFile>> getFileRevisions() {
+            return fileRevisions;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.reporting.MavenReportException;
+
+/**
+ * Start fetching the changed sets in the background early in the build, so that the changelog, dev-activity and
+ * file-activity reports of the module only wait for what is left of the fetch. It is configured like the reports,
+ * whose configuration must match for them to pick up the fetched changed sets; they fetch them on their own
+ * otherwise. Reports generated by a later build use the <code>outputXML</code> the fetch wrote.
+ *
+ * @since 3.0.0
+ */
+@Mojo(name = "prefetch", defaultPhase = LifecyclePhase.VALIDATE, threadSafe = true)
+public class ChangeLogPrefetchMojo extends ChangeLogReport {
+    /**
+     * {@inheritDoc}
+     */
+    public void execute() throws MojoExecutionException {
+        try {
+            prefetch();
+        } catch (MavenReportException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean canGenerateReport() {
+        // only fetches for the reports
+        return false;
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmTag;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.xml.sax.SAXException;
+
+/**
+ * Change log generated xml reader. Pulls the change log sets of a previously generated xml document with StAX,
+ * collecting element content in a single reusable buffer.
+ * <p>
+ * Besides reading the whole document with {@link #readChangeLogSets()}, the change sets can be pulled one at a
+ * time with {@link #nextChangeLogSet()} and {@link #nextChangeSet()}, or as a stream with {@link #changeSets()},
+ * so that consumers which only aggregate never hold more than one change set in memory.
+ * </p>
+ *
+ * @see ChangeLogHandler
+ */
+public class ChangeLogReader implements Closeable {
+    private final XMLStreamReader reader;
+
+    private final Closeable source;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private boolean inChangeLogSet;
+
+    private ChangeSetFilter changeSetFilter;
+
+    private ChangeLogReader(XMLStreamReader reader, Closeable source) {
+        this.reader = reader;
+        this.source = source;
+    }
+
+    /**
+     * creates a reader for a changelog xml document, the encoding is taken from the xml declaration
+     *
+     * @param stream the changelog xml document
+     * @return a reader positioned before the first change log set
+     * @throws IOException when the xml document can't be opened
+     */
+    public static ChangeLogReader open(InputStream stream) throws IOException {
+        try {
+            return new ChangeLogReader(newInputFactory().createXMLStreamReader(stream), stream);
+        } catch (XMLStreamException e) {
+            throw parseError(e);
+        }
+    }
+
+    /**
+     * creates a reader for a changelog xml document
+     *
+     * @param reader the changelog xml document
+     * @return a reader positioned before the first change log set
+     * @throws IOException when the xml document can't be opened
+     */
+    public static ChangeLogReader open(Reader reader) throws IOException {
+        try {
+            return new ChangeLogReader(newInputFactory().createXMLStreamReader(reader), reader);
+        } catch (XMLStreamException e) {
+            throw parseError(e);
+        }
+    }
+
+    /**
+     * skips the change sets the filter doesn't report, without reading the files of those whose author it doesn't
+     * report
+     *
+     * @param filter the filter of the change sets, <code>null</code> to read all of them
+     * @return this reader
+     */
+    ChangeLogReader filter(ChangeSetFilter filter) {
+        this.changeSetFilter = filter != null && filter.isFiltering() ? filter : null;
+        return this;
+    }
+
+    /**
+     * @param e the failure of the xml parser
+     * @return the failure as the {@link IOException} all methods of the reader report
+     */
+    private static IOException parseError(XMLStreamException e) {
+        return new IOException(e.getMessage(), e);
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    /**
+     * reads all remaining change log sets of the document
+     *
+     * @return the change log sets, each with all of its change sets
+     * @throws IOException when an error occurred while reading or parsing the xml document
+     */
+    public List<ChangeLogSet> readChangeLogSets() throws IOException {
+        List<ChangeLogSet> changeLogSets = new ArrayList<>();
+
+        ChangeLogSet changeLogSet;
+        while ((changeLogSet = nextChangeLogSet()) != null) {
+            List<ChangeSet> changeSets = changeLogSet.getChangeSets();
+
+            ChangeSet changeSet;
+            while ((changeSet = nextChangeSet()) != null) {
+                changeSets.add(changeSet);
+            }
+
+            changeLogSets.add(changeLogSet);
+        }
+
+        return changeLogSets;
+    }
+
+    /**
+     * advances to the next <code>changeset</code> element, skipping whatever is left of the current one
+     *
+     * @return the next change log set with an empty list of change sets, or <code>null</code> at the end of the
+     *         document
+     * @throws IOException when an error occurred while reading or parsing the xml document
+     */
+    public ChangeLogSet nextChangeLogSet() throws IOException {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "changeset".equals(reader.getLocalName())) {
+                    inChangeLogSet = true;
+
+                    return readChangeLogSetHeader();
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw parseError(e);
+        }
+
+        inChangeLogSet = false;
+
+        return null;
+    }
+
+    /**
+     * reads the next <code>changelog-entry</code> element of the current change log set
+     *
+     * @return the next change set, or <code>null</code> when the current change log set has no more entries
+     * @throws IOException when an error occurred while reading or parsing the xml document
+     */
+    public ChangeSet nextChangeSet() throws IOException {
+        try {
+            while (inChangeLogSet && reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("changelog-entry".equals(reader.getLocalName())) {
+                        ChangeSet changeSet = readChangeSet();
+                        if (changeSet != null) {
+                            return changeSet;
+                        }
+                        continue;
+                    }
+
+                    skipElement();
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    inChangeLogSet = false;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw parseError(e);
+        }
+
+        return null;
+    }
+
+    /**
+     * lazily pulls the change sets of all remaining change log sets, closing the stream closes this reader. The
+     * failures to read the document are thrown as {@link UncheckedIOException}, wrapping the {@link IOException} the
+     * other methods throw.
+     *
+     * @return the change sets in document order
+     */
+    public Stream<ChangeSet> changeSets() {
+        Iterator<ChangeSet> iterator = new Iterator<ChangeSet>() {
+            private ChangeSet next;
+
+            public boolean hasNext() {
+                try {
+                    while (next == null) {
+                        next = nextChangeSet();
+                        if (next == null && nextChangeLogSet() == null) {
+                            return false;
+                        }
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            public ChangeSet next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ChangeSet changeSet = next;
+                next = null;
+                return changeSet;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private ChangeLogSet readChangeLogSetHeader() throws XMLStreamException {
+        String pattern = attribute("datePattern", ChangeLogHandler.DEFAULT_DATE_PATTERN);
+
+        Date startDate;
+        Date endDate;
+        try {
+            startDate = ChangeLogHandler.parseSetDate(pattern, reader.getAttributeValue(null, "start"), "start");
+            endDate = ChangeLogHandler.parseSetDate(pattern, reader.getAttributeValue(null, "end"), "end");
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), reader.getLocation(), e);
+        }
+
+        ChangeLogSet set = new ChangeLogSet(new ArrayList<>(), startDate, endDate);
+
+        String startVersion = reader.getAttributeValue(null, "startVersion");
+        if (startVersion != null) {
+            set.setStartVersion(new ScmTag(startVersion));
+        }
+        String endVersion = reader.getAttributeValue(null, "endVersion");
+        if (endVersion != null) {
+            set.setEndVersion(new ScmTag(endVersion));
+        }
+
+        return set;
+    }
+
+    /**
+     * @return the change set, or <code>null</code> when the filter doesn't report it
+     */
+    private ChangeSet readChangeSet() throws XMLStreamException {
+        ChangeSet entry = new ChangeSet();
+        boolean rejected = false;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+
+            try {
+                if ("date".equals(name)) {
+                    String pattern = attribute("pattern", ChangeLogHandler.DEFAULT_DATE_PATTERN);
+                    entry.setDate(ChangeLogHandler.addDate(entry.getDate(), pattern, readText()));
+                } else if ("time".equals(name)) {
+                    String pattern = attribute("pattern", ChangeLogHandler.DEFAULT_TIME_PATTERN);
+                    entry.setDate(ChangeLogHandler.addTime(entry.getDate(), pattern, readText()));
+                } else if ("author".equals(name)) {
+                    entry.setAuthor(readText());
+                    rejected = changeSetFilter != null && !changeSetFilter.acceptAuthor(entry.getAuthor());
+                } else if ("msg".equals(name)) {
+                    entry.setComment(readText());
+                } else if ("file".equals(name) && !rejected) {
+                    entry.addFile(readChangeFile());
+                } else {
+                    skipElement();
+                }
+            } catch (ParseException e) {
+                throw new XMLStreamException(e.getMessage(), reader.getLocation(), e);
+            }
+        }
+
+        if (rejected || changeSetFilter != null && !changeSetFilter.acceptMessage(entry.getComment())) {
+            return null;
+        }
+        return entry;
+    }
+
+    private ChangeFile readChangeFile() throws XMLStreamException {
+        ChangeFile file = new ChangeFile("");
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+
+            if ("name".equals(name)) {
+                file.setName(ChangeLogHandler.stripCopySource(readText()));
+            } else if ("revision".equals(name)) {
+                file.setRevision(readText());
+            } else {
+                skipElement();
+            }
+        }
+
+        return file;
+    }
+
+    private String attribute(String name, String defaultValue) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * collects the text content of the current element, the reader is left on its end tag
+     */
+    private String readText() throws XMLStreamException {
+        text.setLength(0);
+
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * skips the current element and all of its content, the reader is left on its end tag
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw parseError(e);
+        } finally {
+            source.close();
+        }
+    }
+}
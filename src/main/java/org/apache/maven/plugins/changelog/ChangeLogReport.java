@@ -18,26 +18,15 @@
  */
 package org.apache.maven.plugins.changelog;
 
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
-import java.io.Writer;
 import java.net.URLEncoder;
-import java.nio.file.Files;
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Date;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -49,28 +38,21 @@ import java.util.regex.Pattern;
 
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.siterenderer.Renderer;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Developer;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.plugins.changelog.scm.provider.svn.svnexe.command.info.SvnInfoCommandExpanded;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.reporting.AbstractMavenReport;
 import org.apache.maven.reporting.MavenReportException;
 import org.apache.maven.scm.ChangeFile;
 import org.apache.maven.scm.ChangeSet;
-import org.apache.maven.scm.ScmBranch;
 import org.apache.maven.scm.ScmException;
-import org.apache.maven.scm.ScmFileSet;
 import org.apache.maven.scm.ScmResult;
-import org.apache.maven.scm.ScmRevision;
-import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
 import org.apache.maven.scm.command.changelog.ChangeLogSet;
-import org.apache.maven.scm.command.info.InfoItem;
-import org.apache.maven.scm.command.info.InfoScmResult;
 import org.apache.maven.scm.manager.ScmManager;
-import org.apache.maven.scm.provider.ScmProvider;
 import org.apache.maven.scm.provider.ScmProviderRepository;
 import org.apache.maven.scm.provider.ScmProviderRepositoryWithHost;
 import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
@@ -81,7 +63,7 @@ import org.apache.maven.settings.Settings;
 /**
  * Generate a changelog report.
  */
-@Mojo(name = "changelog")
+@Mojo(name = "changelog", threadSafe = true)
 public class ChangeLogReport extends AbstractMavenReport {
     /**
      * A special token that represents the SCM relative path for a file.
@@ -121,52 +103,149 @@ public class ChangeLogReport extends AbstractMavenReport {
     private String headingDateFormat = "yyyy-MM-dd";
 
     /**
-     * Used to specify whether to build the log using range, tag or date.
+     * Used to specify whether to build the log using range, tag, date or count.
      */
     @Parameter(property = "changelog.type", defaultValue = "range", required = true)
-    private String type;
+    String type;
 
     /**
      * Used to specify the number of days of log entries to retrieve.
      */
     @Parameter(property = "changelog.range", defaultValue = "-1")
-    private int range;
+    int range;
+
+    /**
+     * With <code>type</code> <code>count</code>, the number of most recent commits to retrieve. The SCM is asked for
+     * no more than these, the <code>includes</code>, <code>excludes</code> and author and message filters then apply
+     * to them.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.count", defaultValue = "500")
+    int count = 500;
 
     /**
      * Used to specify the absolute date (or list of dates) to start log entries from.
      */
     @Parameter
-    private List<String> dates;
+    List<String> dates;
 
     /**
      * Used to specify the tag (or list of tags) to start log entries from.
      */
     @Parameter
-    private List<String> tags;
+    List<String> tags;
 
     /**
      * Used to specify the date format of the log entries that are retrieved from your SCM system.
      */
     @Parameter(property = "changelog.dateFormat", defaultValue = "yyyy-MM-dd HH:mm:ss", required = true)
-    private String dateFormat;
+    String dateFormat;
 
     /**
      * Input dir. Directory where the files under SCM control are located.
      */
     @Parameter(property = "basedir", required = true)
-    private File basedir;
+    File basedir;
 
     /**
-     * Output file for xml document
+     * Output file for xml document. Defaults to <code>${project.build.directory}/changelog.xml</code>, or to
+     * <code>${project.build.directory}/changelog-aggregate.xml</code> for the aggregate reports, which cover the
+     * whole build.
      */
-    @Parameter(defaultValue = "${project.build.directory}/changelog.xml", required = true)
-    private File outputXML;
+    @Parameter
+    File outputXML;
 
     /**
      * Allows the user to make changelog regenerate the changelog.xml file for the specified time in minutes.
      */
     @Parameter(property = "outputXMLExpiration", defaultValue = "60", required = true)
-    private int outputXMLExpiration;
+    int outputXMLExpiration;
+
+    /**
+     * How to decide whether <code>outputXML</code> can be reused. With <code>expiration</code> it is reused for
+     * <code>outputXMLExpiration</code> minutes. With <code>revision</code> the head revision of the SCM and the
+     * configuration the changed sets were fetched with are stored next to <code>outputXML</code>, with a
+     * <code>.fingerprint</code> suffix, and <code>outputXML</code> is reused as long as a probe of the head revision
+     * still matches. When the head revision can't be determined, or in offline mode, <code>expiration</code> is used.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.cacheValidation", defaultValue = "expiration")
+    String cacheValidation = "expiration";
+
+    /**
+     * Keep the changed sets of ranges whose history can't change anymore, i.e. the ranges between two Subversion tags
+     * and the ranges between two dates that ended before today, in <code>rangeCacheDirectory</code> so that they are
+     * fetched from the SCM only once. The tags of the other providers can be moved, so the ranges between them are
+     * always fetched.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.cacheClosedRanges", defaultValue = "true")
+    boolean cacheClosedRanges = true;
+
+    /**
+     * The directory the changed sets of closed ranges are kept in. Defaults to
+     * <code>.cache/maven-changelog-plugin</code> in the local repository.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.rangeCacheDirectory")
+    File rangeCacheDirectory;
+
+    /**
+     * The number of tag or date ranges fetched from the SCM at the same time. The changed sets are reported in the
+     * order of <code>tags</code> or <code>dates</code> regardless.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.fetchThreads", defaultValue = "1")
+    int fetchThreads = 1;
+
+    /**
+     * With <code>type</code> <code>tag</code> and a Subversion repository, fetch the changes from the first to the
+     * last tag with a single log and split them by the revisions of the tags in between, instead of running a log
+     * for each pair of tags.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.singlePassTags", defaultValue = "false")
+    boolean singlePassTags;
+
+    /**
+     * With a Git repository, fetch the changes of the whole work tree once for all modules of the build, and report
+     * those in the <code>basedir</code> of each module, instead of running a log for each module. Git simplifies the
+     * history of a single module at merge commits, so the changes are only shared when there are no merge commits in
+     * the fetched history, and the modules report exactly what a log of their own would. Not used with
+     * <code>type</code> <code>count</code> or when the <code>includes</code> narrow down the paths the changes are
+     * fetched for.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.sharedFetch", defaultValue = "false")
+    boolean sharedFetch;
+
+    /**
+     * The format of the cache the report mojos load the changed sets from. With <code>xml</code> only
+     * <code>outputXML</code> is used. With <code>binary</code> a compact copy of it is kept next to
+     * <code>outputXML</code>, with a <code>.bin</code> suffix, and loaded instead as long as it is not older than
+     * <code>outputXML</code>.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.cacheFormat", defaultValue = "xml")
+    String cacheFormat = "xml";
+
+    /**
+     * With <code>type</code> <code>range</code>, extend an expired <code>outputXML</code> with the changes committed
+     * since its newest revision instead of fetching the whole range again. Entries that fell out of the range are
+     * dropped. Only supported for Subversion, the whole range is fetched again for the other SCMs.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.incremental", defaultValue = "false")
+    boolean incremental;
 
     /**
      * The file encoding when writing non-HTML reports.
@@ -229,11 +308,14 @@ public class ChangeLogReport extends AbstractMavenReport {
 
     /**
      * List of files to include. Specified as fileset patterns of files to include in the report
+     * <p>
+     * With Git and Subversion only the changed sets of the directories the patterns are confined to are fetched, each
+     * on its own. The other providers can't be asked for single paths, they fetch those of all of the basedir.
      *
      * @since 2.3
      */
     @Parameter
-    private String[] includes;
+    String[] includes;
 
     /**
      * List of files to include. Specified as fileset patterns of files to omit in the report
@@ -241,28 +323,65 @@ public class ChangeLogReport extends AbstractMavenReport {
      * @since 2.3
      */
     @Parameter
-    private String[] excludes;
+    String[] excludes;
+
+    /**
+     * List of authors whose commits are included in the report, as reported by the SCM. All authors when empty.
+     *
+     * @since 3.0.0
+     */
+    @Parameter
+    String[] includeAuthors;
+
+    /**
+     * List of authors whose commits are omitted from the report, as reported by the SCM, e.g. the accounts of bots.
+     *
+     * @since 3.0.0
+     */
+    @Parameter
+    String[] excludeAuthors;
+
+    /**
+     * Regular expression which omits the commits whose message it is found in from the report, e.g.
+     * <code>\[maven-release-plugin\]</code>.
+     *
+     * @since 3.0.0
+     */
+    @Parameter(property = "changelog.messageExcludePattern")
+    String messageExcludePattern;
 
     /**
      * The Maven Project Object
      */
     @Parameter(defaultValue = "${project}", readonly = true, required = true)
-    private MavenProject project;
+    MavenProject project;
+
+    /**
+     * The current build session.
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    MavenSession session;
+
+    /**
+     * The projects of the build, which the aggregate reports break the changes down by.
+     */
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true)
+    private List<MavenProject> reactorProjects;
 
     /**
      */
     @Parameter(property = "settings.offline", required = true, readonly = true)
-    private boolean offline;
+    boolean offline;
 
     /**
      */
     @Component
-    private ScmManager manager;
+    ScmManager manager;
 
     /**
      */
     @Parameter(defaultValue = "${settings}", readonly = true, required = true)
-    private Settings settings;
+    Settings settings;
 
     /**
      * Allows the user to choose which scm connection to use when connecting to the scm.
@@ -394,13 +513,26 @@ public class ChangeLogReport extends AbstractMavenReport {
     private HashMap<String, Developer> developersByName;
 
     /**
-     * The system properties to use (needed by the perforce scm provider).
+     * The system properties to use (needed by the perforce scm provider). They are set only while the changed sets
+     * are fetched. As system properties are shared by the whole JVM, the executions setting them are serialized: in a
+     * parallel build an execution setting them waits for the other ones setting them and for the Perforce and
+     * StarTeam ones, which read system properties, and these wait for it. Executions of the other providers that
+     * don't set them don't wait.
      */
     @Parameter
-    private Properties systemProperties;
+    Properties systemProperties;
 
     private final Pattern sinkFileNamePattern = Pattern.compile("\\\\");
 
+    // the fetcher of the changed sets, created once the configuration is verified
+    private ChangeLogFetcher fetcher;
+
+    // the changed sets with what the reports show of them, shared by the report mojos of the module
+    private ChangeLogModel model;
+
+    // the modules the changes are broken down by, only set for the aggregate reports
+    private ReactorModules reactorModules;
+
     /**
      * {@inheritDoc}
      */
@@ -412,15 +544,7 @@ public class ChangeLogReport extends AbstractMavenReport {
             return;
         }
 
-        if (providerImplementations != null) {
-            for (Map.Entry<String, String> entry : providerImplementations.entrySet()) {
-                String providerType = entry.getKey();
-                String providerImplementation = entry.getValue();
-                getLog().info("Change the default '" + providerType + "' provider implementation to '"
-                        + providerImplementation + "'.");
-                manager.setScmProviderImplementation(providerType, providerImplementation);
-            }
-        }
+        setProviderImplementations();
 
         initializeDefaultConfigurationParameters();
 
@@ -428,21 +552,48 @@ public class ChangeLogReport extends AbstractMavenReport {
 
         verifySCMTypeParams();
 
-        if (systemProperties != null) {
-            // Add all system properties configured by the user
+        if (isAggregate()) {
+            // the changed sets of basedir are those of all modules below it
+            reactorModules = ReactorModules.of(basedir, reactorProjects, getConnection());
+        }
+
+        doGenerateReport(getChangedSets(), getBundle(locale), getSink());
+    }
+
+    /**
+     * Starts loading the changed sets in the background, for the report mojos of the module to render them later in
+     * the build. They find the loading in the project context, and wait for it if it isn't done yet.
+     *
+     * @throws MavenReportException if the configuration is invalid
+     */
+    void prefetch() throws MavenReportException {
+        if (skip || !basedir.exists()) {
+            return;
+        }
 
-            for (Object o : systemProperties.keySet()) {
-                String key = (String) o;
+        setProviderImplementations();
 
-                String value = systemProperties.getProperty(key);
+        verifySCMTypeParams();
 
-                System.setProperty(key, value);
+        getFetcher().prefetch();
+    }
 
-                getLog().debug("Setting system property: " + key + '=' + value);
+    /**
+     * Changes the default provider implementations as configured.
+     */
+    private void setProviderImplementations() {
+        if (providerImplementations != null) {
+            // the manager is shared by the modules built in parallel
+            synchronized (manager) {
+                for (Map.Entry<String, String> entry : providerImplementations.entrySet()) {
+                    String providerType = entry.getKey();
+                    String providerImplementation = entry.getValue();
+                    getLog().info("Change the default '" + providerType + "' provider implementation to '"
+                            + providerImplementation + "'.");
+                    manager.setScmProviderImplementation(providerType, providerImplementation);
+                }
             }
         }
-
-        doGenerateReport(getChangedSets(), getBundle(locale), getSink());
     }
 
     /**
@@ -479,80 +630,8 @@ public class ChangeLogReport extends AbstractMavenReport {
      * @throws MavenReportException if any exception occurs
      */
     protected List<ChangeLogSet> getChangedSets() throws MavenReportException {
-        List<ChangeLogSet> changelogList = null;
-
-        if (!outputXML.isAbsolute()) {
-            outputXML = new File(project.getBasedir(), outputXML.getPath());
-        }
-
-        if (outputXML.exists()) {
-            // CHECKSTYLE_OFF: MagicNumber
-            if (outputXMLExpiration > 0
-                    && outputXMLExpiration * 60000L > System.currentTimeMillis() - outputXML.lastModified())
-            // CHECKSTYLE_ON: MagicNumber
-            {
-                try {
-                    getLog().info("Using existing changelog.xml...");
-                    changelogList = ChangeLog.loadChangedSets(
-                            new InputStreamReader(Files.newInputStream(outputXML.toPath()), getOutputEncoding()));
-                } catch (FileNotFoundException e) {
-                    // do nothing, just regenerate
-                } catch (Exception e) {
-                    throw new MavenReportException("An error occurred while parsing " + outputXML.getAbsolutePath(), e);
-                }
-            }
-        }
-
-        if (changelogList == null) {
-            if (offline) {
-                throw new MavenReportException("This report requires online mode.");
-            }
-
-            getLog().info("Generating changed sets xml to: " + outputXML.getAbsolutePath());
-
-            changelogList = generateChangeSetsFromSCM();
-
-            try {
-                writeChangelogXml(changelogList);
-            } catch (IOException e) {
-                throw new MavenReportException("Can't create " + outputXML.getAbsolutePath(), e);
-            }
-        }
-
-        return changelogList;
-    }
-
-    private void writeChangelogXml(List<ChangeLogSet> changelogList) throws IOException {
-        StringBuilder changelogXml = new StringBuilder();
-
-        changelogXml
-                .append("<?xml version=\"1.0\" encoding=\"")
-                .append(getOutputEncoding())
-                .append("\"?>\n");
-        changelogXml.append("<changelog>");
-
-        for (ChangeLogSet changelogSet : changelogList) {
-            changelogXml.append("\n  ");
-
-            String changeset = changelogSet.toXML(getOutputEncoding());
-
-            // remove xml header
-            if (changeset.startsWith("<?xml")) {
-                int idx = changeset.indexOf("?>") + 2;
-                changeset = changeset.substring(idx);
-            }
-
-            changelogXml.append(changeset);
-        }
-
-        changelogXml.append("\n</changelog>");
-
-        outputXML.getParentFile().mkdirs();
-        Writer writer = new OutputStreamWriter(
-                new BufferedOutputStream(Files.newOutputStream(outputXML.toPath())), getOutputEncoding());
-        writer.write(changelogXml.toString());
-        writer.flush();
-        writer.close();
+        model = getFetcher().getModel();
+        return model.getChangeLogSets();
     }
 
     /**
@@ -562,241 +641,28 @@ public class ChangeLogReport extends AbstractMavenReport {
      * @throws MavenReportException if any exception occurs
      */
     protected List<ChangeLogSet> generateChangeSetsFromSCM() throws MavenReportException {
-        try {
-            List<ChangeLogSet> changeSets = new ArrayList<>();
-
-            ScmRepository repository = getScmRepository();
-
-            ScmProvider provider = manager.getProviderByRepository(repository);
-
-            ChangeLogScmResult result;
-
-            if ("range".equals(type)) {
-                result = provider.changeLog(
-                        repository, new ScmFileSet(basedir), null, null, range, (ScmBranch) null, dateFormat);
-
-                checkResult(result);
-
-                changeSets.add(result.getChangeLog());
-            } else if ("tag".equals(type)) {
-
-                Iterator<String> tagsIter = tags.iterator();
-
-                String startTag = tagsIter.next();
-                String endTag = null;
-
-                if (tagsIter.hasNext()) {
-                    while (tagsIter.hasNext()) {
-                        endTag = tagsIter.next();
-                        String endRevision = getRevisionForTag(endTag, repository, provider);
-                        String startRevision = getRevisionForTag(startTag, repository, provider);
-                        result = provider.changeLog(
-                                repository,
-                                new ScmFileSet(basedir),
-                                new ScmRevision(startRevision),
-                                new ScmRevision(endRevision));
-
-                        checkResult(result);
-                        result.getChangeLog().setStartVersion(new ScmRevision(startTag));
-                        result.getChangeLog().setEndVersion(new ScmRevision(endTag));
-
-                        changeSets.add(result.getChangeLog());
-
-                        startTag = endTag;
-                    }
-                } else {
-                    String startRevision = getRevisionForTag(startTag, repository, provider);
-                    String endRevision = getRevisionForTag(endTag, repository, provider);
-                    result = provider.changeLog(
-                            repository,
-                            new ScmFileSet(basedir),
-                            new ScmRevision(startRevision),
-                            new ScmRevision(endRevision));
-
-                    checkResult(result);
-                    result.getChangeLog().setStartVersion(new ScmRevision(startTag));
-                    result.getChangeLog().setEndVersion(null);
-                    changeSets.add(result.getChangeLog());
-                }
-            } else if ("date".equals(type)) {
-                Iterator<String> dateIter = dates.iterator();
-
-                String startDate = dateIter.next();
-                String endDate = null;
-
-                if (dateIter.hasNext()) {
-                    while (dateIter.hasNext()) {
-                        endDate = dateIter.next();
-
-                        result = provider.changeLog(
-                                repository,
-                                new ScmFileSet(basedir),
-                                parseDate(startDate),
-                                parseDate(endDate),
-                                0,
-                                (ScmBranch) null);
-
-                        checkResult(result);
-
-                        changeSets.add(result.getChangeLog());
-
-                        startDate = endDate;
-                    }
-                } else {
-                    result = provider.changeLog(
-                            repository,
-                            new ScmFileSet(basedir),
-                            parseDate(startDate),
-                            parseDate(endDate),
-                            0,
-                            (ScmBranch) null);
-
-                    checkResult(result);
-
-                    changeSets.add(result.getChangeLog());
-                }
-            } else {
-                throw new MavenReportException("The type '" + type + "' isn't supported.");
-            }
-            filter(changeSets);
-            return changeSets;
-
-        } catch (ScmException e) {
-            throw new MavenReportException("Cannot run changelog command : ", e);
-        } catch (MojoExecutionException e) {
-            throw new MavenReportException("An error has occurred during changelog command : ", e);
-        }
-    }
-
-    /**
-     * Resolves the given tag to the revision number.
-     *
-     * @param tag
-     * @param repository
-     * @param provider
-     * @return
-     * @throws ScmException
-     */
-    private String getRevisionForTag(final String tag, final ScmRepository repository, final ScmProvider provider)
-            throws ScmException {
-        if (repository.getProvider().equals("svn")) {
-            if (tag == null) {
-                return "HEAD";
-            }
-            SvnInfoCommandExpanded infoCommand = new SvnInfoCommandExpanded();
-
-            InfoScmResult infoScmResult = infoCommand.executeInfoTagCommand(
-                    (SvnScmProviderRepository) repository.getProviderRepository(),
-                    new ScmFileSet(basedir),
-                    tag,
-                    null,
-                    false,
-                    null);
-            if (infoScmResult.getInfoItems().isEmpty()) {
-                throw new ScmException("There is no tag named '" + tag + "' in the Subversion repository.");
-            }
-            InfoItem infoItem = infoScmResult.getInfoItems().get(0);
-            String revision = infoItem.getLastChangedRevision();
-            getLog().info(String.format("Resolved tag '%s' to revision '%s'", tag, revision));
-            return revision;
-        }
-        return tag;
-    }
-
-    /**
-     * filters out unwanted files from the changesets
-     */
-    private void filter(List<ChangeLogSet> changeSets) {
-        List<Pattern> include = compilePatterns(includes);
-        List<Pattern> exclude = compilePatterns(excludes);
-        if (includes == null && excludes == null) {
-            return;
-        }
-        for (ChangeLogSet changeLogSet : changeSets) {
-            List<ChangeSet> set = changeLogSet.getChangeSets();
-            filter(set, include, exclude);
-        }
-    }
-
-    private List<Pattern> compilePatterns(String[] patternArray) {
-        if (patternArray == null) {
-            return new ArrayList<>();
-        }
-        List<Pattern> patterns = new ArrayList<>(patternArray.length);
-        for (String string : patternArray) {
-            // replaces * with [/\]* (everything but file seperators)
-            // replaces ** with .*
-            // quotes the rest of the string
-            string = "\\Q" + string + "\\E";
-            string = string.replace("**", "\\E.?REPLACEMENT?\\Q");
-            string = string.replace("*", "\\E[^/\\\\]?REPLACEMENT?\\Q");
-            string = string.replace("?REPLACEMENT?", "*");
-            string = string.replace("\\Q\\E", "");
-            patterns.add(Pattern.compile(string));
-        }
-        return patterns;
-    }
-
-    private void filter(List<ChangeSet> sets, List<Pattern> includes, List<Pattern> excludes) {
-        Iterator<ChangeSet> it = sets.iterator();
-        while (it.hasNext()) {
-            ChangeSet changeSet = it.next();
-            List<ChangeFile> files = changeSet.getFiles();
-            Iterator<ChangeFile> iterator = files.iterator();
-            while (iterator.hasNext()) {
-                ChangeFile changeFile = iterator.next();
-                String name = changeFile.getName();
-                if (!isIncluded(includes, name) || isExcluded(excludes, name)) {
-                    iterator.remove();
-                }
-            }
-            if (files.isEmpty()) {
-                it.remove();
-            }
-        }
-    }
-
-    private boolean isExcluded(List<Pattern> excludes, String name) {
-        if (excludes == null || excludes.isEmpty()) {
-            return false;
-        }
-        for (Pattern pattern : excludes) {
-            if (pattern.matcher(name).matches()) {
-                return true;
-            }
-        }
-        return false;
+        return getFetcher().generateChangeSetsFromSCM();
     }
 
-    private boolean isIncluded(List<Pattern> includes, String name) {
-        if (includes == null || includes.isEmpty()) {
-            return true;
+    private void resolveOutputXML() {
+        if (outputXML == null) {
+            outputXML = new File(
+                    project.getBuild().getDirectory(), isAggregate() ? "changelog-aggregate.xml" : "changelog.xml");
         }
-        for (Pattern pattern : includes) {
-            if (pattern.matcher(name).matches()) {
-                return true;
-            }
+        if (!outputXML.isAbsolute()) {
+            outputXML = new File(project.getBasedir(), outputXML.getPath());
         }
-        return false;
     }
 
     /**
-     * Converts the localized date string pattern to date object.
-     *
-     * @return A date
+     * @return the fetcher of the changed sets of this execution
      */
-    private Date parseDate(String date) throws MojoExecutionException {
-        if (date == null || date.trim().isEmpty()) {
-            return null;
-        }
-
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-
-        try {
-            return formatter.parse(date);
-        } catch (ParseException e) {
-            throw new MojoExecutionException("Please use this date pattern: " + formatter.toLocalizedPattern(), e);
+    private synchronized ChangeLogFetcher getFetcher() {
+        if (fetcher == null) {
+            resolveOutputXML();
+            fetcher = new ChangeLogFetcher(this);
         }
+        return fetcher;
     }
 
     public ScmRepository getScmRepository() throws ScmException {
@@ -953,9 +819,13 @@ public class ChangeLogReport extends AbstractMavenReport {
             if (tags == null) {
                 throw new MavenReportException("The tags parameter is required when type=\"tag\".");
             }
+        } else if ("count".equals(type)) {
+            if (count <= 0) {
+                throw new MavenReportException("The count parameter must be positive when type=\"count\".");
+            }
         } else {
             throw new MavenReportException("The type parameter has an invalid value: " + type
-                    + ".  The value should be \"range\", \"date\", or \"tag\".");
+                    + ".  The value should be \"range\", \"date\", \"tag\", or \"count\".");
         }
     }
 
@@ -1055,7 +925,7 @@ public class ChangeLogReport extends AbstractMavenReport {
 
         doSummary(set, bundle, sink);
 
-        doChangedSetTable(set.getChangeSets(), bundle, sink);
+        doChangedSetTable(getSummary(set).getChangeSets(), bundle, sink);
 
         sink.section2_();
     }
@@ -1116,55 +986,18 @@ public class ChangeLogReport extends AbstractMavenReport {
         sink.text(": " + set.getChangeSets().size());
         sink.lineBreak();
         sink.text(bundle.getString("report.changelog.FilesChanged"));
-        sink.text(": " + countFilesChanged(set.getChangeSets()));
+        sink.text(": " + getSummary(set).getFilesChanged());
         sink.paragraph_();
     }
 
-    /**
-     * counts the number of files that were changed in the specified SCM
-     *
-     * @param entries a collection of SCM changes
-     * @return number of files changed for the changedsets
-     */
-    protected long countFilesChanged(Collection<ChangeSet> entries) {
-        if (entries == null) {
-            return 0;
-        }
-
-        if (entries.isEmpty()) {
-            return 0;
-        }
-
-        HashMap<String, List<ChangeFile>> fileList = new HashMap<>();
-
-        for (ChangeSet entry : entries) {
-            for (ChangeFile file : entry.getFiles()) {
-                String name = file.getName();
-                List<ChangeFile> list = fileList.get(name);
-
-                if (list != null) {
-                    list.add(file);
-                } else {
-                    list = new LinkedList<>();
-
-                    list.add(file);
-
-                    fileList.put(name, list);
-                }
-            }
-        }
-
-        return fileList.size();
-    }
-
     /**
      * generates the report table showing the SCM log entries
      *
-     * @param entries a list of change log entries to generate the report from
+     * @param entries a list of change log entries to generate the report from, newest first
      * @param bundle  the resource bundle to retrieve report phrases from
      * @param sink    the report formatting tool
      */
-    private void doChangedSetTable(Collection<ChangeSet> entries, ResourceBundle bundle, Sink sink) {
+    private void doChangedSetTable(List<ChangeSet> entries, ResourceBundle bundle, Sink sink) {
         sink.table();
         sink.tableRows(new int[] {Sink.JUSTIFY_LEFT}, false);
 
@@ -1175,6 +1008,11 @@ public class ChangeLogReport extends AbstractMavenReport {
         sink.tableHeaderCell();
         sink.text(bundle.getString("report.changelog.author"));
         sink.tableHeaderCell_();
+        if (reactorModules != null) {
+            sink.tableHeaderCell();
+            sink.text(bundle.getString("report.modules"));
+            sink.tableHeaderCell_();
+        }
         sink.tableHeaderCell();
         sink.text(bundle.getString("report.changelog.details"));
         sink.tableHeaderCell_();
@@ -1182,10 +1020,7 @@ public class ChangeLogReport extends AbstractMavenReport {
 
         initReportUrls();
 
-        List<ChangeSet> sortedEntries = new ArrayList<>(entries);
-        sortedEntries.sort((changeSet0, changeSet1) -> changeSet1.getDate().compareTo(changeSet0.getDate()));
-
-        for (ChangeSet entry : sortedEntries) {
+        for (ChangeSet entry : entries) {
             doChangedSetDetail(entry, sink);
         }
 
@@ -1212,6 +1047,12 @@ public class ChangeLogReport extends AbstractMavenReport {
 
         sink.tableCell_();
 
+        if (reactorModules != null) {
+            sink.tableCell();
+            sink.text(String.join(", ", reactorModules.getModules(entry)));
+            sink.tableCell_();
+        }
+
         sink.tableCell();
 
         if (!omitFileAndRevision) {
@@ -1616,6 +1457,31 @@ public class ChangeLogReport extends AbstractMavenReport {
         return "changelog";
     }
 
+    /**
+     * @return <code>true</code> if the report covers all modules of the build, broken down by module
+     */
+    protected boolean isAggregate() {
+        return false;
+    }
+
+    /**
+     * @return the modules the changes are broken down by, <code>null</code> unless the report is an aggregate
+     */
+    ReactorModules getReactorModules() {
+        return reactorModules;
+    }
+
+    /**
+     * @param set a changed set
+     * @return what the reports show of the changed set, summarized when the changed sets were loaded
+     */
+    ChangeLogModel.Summary getSummary(ChangeLogSet set) {
+        if (model == null) {
+            model = new ChangeLogModel(Collections.emptyList());
+        }
+        return model.getSummary(set);
+    }
+
     /**
      * @param locale the locale for the <code>scm-activity</code> resource bundle
      * @return the current bundle
@@ -1628,10 +1494,16 @@ public class ChangeLogReport extends AbstractMavenReport {
      * {@inheritDoc}
      */
     public boolean canGenerateReport() {
+        resolveOutputXML();
         if (offline && !outputXML.exists()) {
             return false;
         }
 
+        // the aggregate reports are generated once, at the root of the build
+        if (isAggregate() && !project.isExecutionRoot()) {
+            return false;
+        }
+
         return !skip;
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+
+/**
+ * Decides which commits are reported, based on their author and message. The author is known before the changed
+ * files of a commit, so that readers can skip the files of commits whose author is not reported.
+ *
+ * @since 3.0.0
+ */
+final class ChangeSetFilter {
+    private final Set<String> includeAuthors;
+
+    private final Set<String> excludeAuthors;
+
+    private final Pattern messageExcludePattern;
+
+    /**
+     * @param includeAuthors        the authors of the commits to report, all authors when <code>null</code> or empty
+     * @param excludeAuthors        the authors of the commits not to report, may be <code>null</code>
+     * @param messageExcludePattern the regular expression found in the messages of the commits not to report, may be
+     *                              <code>null</code>
+     */
+    ChangeSetFilter(String[] includeAuthors, String[] excludeAuthors, String messageExcludePattern) {
+        this.includeAuthors = toSet(includeAuthors);
+        this.excludeAuthors = toSet(excludeAuthors);
+        this.messageExcludePattern = messageExcludePattern == null || messageExcludePattern.isEmpty()
+                ? null
+                : Pattern.compile(messageExcludePattern);
+    }
+
+    private static Set<String> toSet(String[] values) {
+        return values == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(values));
+    }
+
+    /**
+     * @return whether any commit can be filtered out
+     */
+    boolean isFiltering() {
+        return !includeAuthors.isEmpty() || !excludeAuthors.isEmpty() || messageExcludePattern != null;
+    }
+
+    /**
+     * @param author the author of a commit
+     * @return whether the commits of the author are reported
+     */
+    boolean acceptAuthor(String author) {
+        return (includeAuthors.isEmpty() || includeAuthors.contains(author)) && !excludeAuthors.contains(author);
+    }
+
+    /**
+     * @param message the message of a commit
+     * @return whether a commit with this message is reported
+     */
+    boolean acceptMessage(String message) {
+        return messageExcludePattern == null
+                || message == null
+                || !messageExcludePattern.matcher(message).find();
+    }
+
+    /**
+     * @param entry a commit
+     * @return whether the commit is reported
+     */
+    boolean accept(ChangeSet entry) {
+        return acceptAuthor(entry.getAuthor()) && acceptMessage(entry.getComment());
+    }
+
+    /**
+     * drops the commits of a change log set that are not reported
+     *
+     * @param set the change log set
+     */
+    void filter(ChangeLogSet set) {
+        List<ChangeSet> entries = set.getChangeSets();
+        List<ChangeSet> kept = new ArrayList<>(entries.size());
+        for (ChangeSet entry : entries) {
+            if (accept(entry)) {
+                kept.add(entry);
+            }
+        }
+        if (kept.size() < entries.size()) {
+            set.setChangeSets(kept);
+        }
+    }
+}
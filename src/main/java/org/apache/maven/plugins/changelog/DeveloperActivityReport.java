@@ -18,9 +18,8 @@
  */
 package org.apache.maven.plugins.changelog;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -35,15 +34,8 @@ import org.apache.maven.scm.command.changelog.ChangeLogSet;
 /**
  * Generate a developer activity report.
  */
-@Mojo(name = "dev-activity")
+@Mojo(name = "dev-activity", threadSafe = true)
 public class DeveloperActivityReport extends ChangeLogReport {
-    /**
-     * Used to hold data while creating the report
-     */
-    private Map<String, List<ChangeSet>> commits;
-
-    private Map<String, Map<String, ChangeFile>> files;
-
     /**
      * {@inheritDoc}
      */
@@ -152,6 +144,11 @@ public class DeveloperActivityReport extends ChangeLogReport {
         sink.tableHeaderCell();
         sink.text(bundle.getString("report.dev-activity.filesChanged"));
         sink.tableHeaderCell_();
+        if (getReactorModules() != null) {
+            sink.tableHeaderCell();
+            sink.text(bundle.getString("report.modules"));
+            sink.tableHeaderCell_();
+        }
         sink.tableRow_();
 
         doDeveloperRows(set, sink);
@@ -169,9 +166,10 @@ public class DeveloperActivityReport extends ChangeLogReport {
      * @param sink the report formatting tool
      */
     private void doDeveloperRows(ChangeLogSet set, Sink sink) {
-        initDeveloperDetails(set);
+        ChangeLogModel.Summary summary = getSummary(set);
+        Map<String, Map<String, ChangeFile>> files = summary.getFiles();
 
-        for (Map.Entry<String, List<ChangeSet>> commit : commits.entrySet()) {
+        for (Map.Entry<String, List<ChangeSet>> commit : summary.getCommits().entrySet()) {
             String author = commit.getKey();
 
             List<ChangeSet> devCommits = commit.getValue();
@@ -192,49 +190,40 @@ public class DeveloperActivityReport extends ChangeLogReport {
             sink.text(String.valueOf(devFiles.size()));
             sink.tableCell_();
 
+            if (getReactorModules() != null) {
+                sink.tableCell();
+                sink.text(getModuleCommits(devCommits));
+                sink.tableCell_();
+            }
+
             sink.tableRow_();
         }
     }
 
     /**
-     * counts the number of commits and files changed for each developer
+     * counts the commits of a developer by module
      *
-     * @param set the change log set to generate the developer details from
+     * @param devCommits the commits of the developer
+     * @return the modules the developer committed to with the number of commits, most committed to first
      */
-    private void initDeveloperDetails(ChangeLogSet set) {
-        commits = new HashMap<>();
-
-        files = new HashMap<>();
-
-        countDevCommits(set.getChangeSets());
-
-        countDevFiles(set.getChangeSets());
-    }
-
-    /**
-     * counts the number of commits of each developer
-     *
-     * @param entries the change log entries used to search and count developer commits
-     */
-    private void countDevCommits(Collection<ChangeSet> entries) {
-        for (ChangeSet entry : entries) {
-            List<ChangeSet> list = commits.computeIfAbsent(entry.getAuthor(), k -> new LinkedList<>());
-            list.add(entry);
+    private String getModuleCommits(List<ChangeSet> devCommits) {
+        Map<String, Integer> moduleCommits = new LinkedHashMap<>();
+        for (ChangeSet entry : devCommits) {
+            for (String module : getReactorModules().getModules(entry)) {
+                moduleCommits.merge(module, 1, Integer::sum);
+            }
         }
-    }
 
-    /**
-     * counts the number of files changed by each developer
-     *
-     * @param entries the change log entries used to search and count file changes
-     */
-    private void countDevFiles(Collection<ChangeSet> entries) {
-        for (ChangeSet entry : entries) {
-            String developer = entry.getAuthor();
-            Map<String, ChangeFile> filesMap = files.computeIfAbsent(developer, k -> new HashMap<>());
-            for (ChangeFile file : entry.getFiles()) {
-                filesMap.put(file.getName(), file);
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(moduleCommits.entrySet());
+        sorted.sort((entry0, entry1) -> entry1.getValue().compareTo(entry0.getValue()));
+
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : sorted) {
+            if (text.length() > 0) {
+                text.append(", ");
             }
+            text.append(entry.getKey()).append(" (").append(entry.getValue()).append(')');
         }
+        return text.toString();
     }
 }
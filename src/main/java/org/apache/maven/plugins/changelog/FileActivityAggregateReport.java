@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.Locale;
+
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Generate a file activity report of all modules of the build, once at its root. The changes are fetched once for the
+ * root directory, and each file lists the module it belongs to.
+ *
+ * @since 3.0.0
+ */
+@Mojo(name = "file-activity-aggregate", aggregator = true, threadSafe = true)
+public class FileActivityAggregateReport extends FileActivityReport {
+    /**
+     * {@inheritDoc}
+     */
+    public String getDescription(Locale locale) {
+        return getBundle(locale).getString("report.file-activity-aggregate.description");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getName(Locale locale) {
+        return getBundle(locale).getString("report.file-activity-aggregate.name");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getOutputName() {
+        return "file-activity-aggregate";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isAggregate() {
+        return true;
+    }
+}
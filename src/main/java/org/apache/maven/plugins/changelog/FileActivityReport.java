@@ -18,12 +18,8 @@
  */
 package org.apache.maven.plugins.changelog;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.ResourceBundle;
 
 import org.apache.maven.doxia.sink.Sink;
@@ -35,7 +31,7 @@ import org.apache.maven.scm.command.changelog.ChangeLogSet;
 /**
  * Generate a file activity report.
  */
-@Mojo(name = "file-activity")
+@Mojo(name = "file-activity", threadSafe = true)
 public class FileActivityReport extends ChangeLogReport {
     /**
      * {@inheritDoc}
@@ -137,6 +133,11 @@ public class FileActivityReport extends ChangeLogReport {
         sink.tableHeaderCell();
         sink.text(bundle.getString("report.file-activity.timesChanged"));
         sink.tableHeaderCell_();
+        if (getReactorModules() != null) {
+            sink.tableHeaderCell();
+            sink.text(bundle.getString("report.module"));
+            sink.tableHeaderCell_();
+        }
         sink.tableRow_();
 
         doRows(set, sink);
@@ -154,7 +155,7 @@ public class FileActivityReport extends ChangeLogReport {
      * @param sink the report formatting tool
      */
     private void doRows(ChangeLogSet set, Sink sink) {
-        List<List<ChangeFile>> list = getOrderedFileList(set.getChangeSets());
+        List<List<ChangeFile>> list = getSummary(set).getFileRevisions();
 
         initReportUrls();
 
@@ -181,28 +182,13 @@ public class FileActivityReport extends ChangeLogReport {
             sink.text("" + revision.size());
 
             sink.tableCell_();
-            sink.tableRow_();
-        }
-    }
 
-    /**
-     * reads the change log entries and generates a list of files changed order by the number of times edited. This
-     * used the FileActivityComparator Object to sort the list
-     *
-     * @param entries the changelog entries to generate the report
-     * @return list of changed files within the SCM with the number of times changed in descending order
-     */
-    private List<List<ChangeFile>> getOrderedFileList(Collection<ChangeSet> entries) {
-        Map<String, List<ChangeFile>> map = new HashMap<>();
-        for (ChangeSet entry : entries) {
-            for (ChangeFile file : entry.getFiles()) {
-                List<ChangeFile> revisions = map.computeIfAbsent(file.getName(), k -> new LinkedList<>());
-                revisions.add(file);
+            if (getReactorModules() != null) {
+                sink.tableCell();
+                sink.text(getReactorModules().getModule(file.getName()));
+                sink.tableCell_();
             }
+            sink.tableRow_();
         }
-
-        List<List<ChangeFile>> list = new LinkedList<>(map.values());
-        list.sort(new FileActivityComparator());
-        return list;
     }
 }
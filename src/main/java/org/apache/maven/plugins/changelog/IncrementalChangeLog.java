@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+
+/**
+ * Extends a cached range change log set with the change sets fetched since its newest revision.
+ *
+ * @since 3.0.0
+ */
+final class IncrementalChangeLog {
+    // CHECKSTYLE_OFF: MagicNumber
+    private static final long SECOND = 1000L;
+    // CHECKSTYLE_ON: MagicNumber
+
+    private IncrementalChangeLog() {
+        // utility class
+    }
+
+    /**
+     * @param cached the cached change log set
+     * @return the newest revision of the cached change sets, or <code>null</code> if there is none or one of them has
+     *         no numeric revision
+     */
+    static String getNewestRevision(ChangeLogSet cached) {
+        Long newest = null;
+        for (ChangeSet entry : cached.getChangeSets()) {
+            Long revision = TagRangeSplitter.getRevision(entry);
+            if (revision == null) {
+                return null;
+            }
+            if (newest == null || revision > newest) {
+                newest = revision;
+            }
+        }
+        return newest != null ? String.valueOf(newest) : null;
+    }
+
+    /**
+     * Merges the change sets fetched since {@link #getNewestRevision(ChangeLogSet)} into the cached ones. The log
+     * includes that revision again, so fetched change sets already in the cache are skipped. Change sets older than
+     * the start of the window are dropped.
+     *
+     * @param cached      the cached change log set
+     * @param fetched     the change log set fetched since the newest cached revision
+     * @param windowStart the start of the range, <code>null</code> to keep all change sets
+     * @return the merged change log set, ordered like the cached one
+     */
+    static ChangeLogSet merge(ChangeLogSet cached, ChangeLogSet fetched, Date windowStart) {
+        Set<String> known = new HashSet<>();
+        for (ChangeSet entry : cached.getChangeSets()) {
+            known.add(key(entry));
+        }
+
+        List<ChangeSet> added = new ArrayList<>();
+        for (ChangeSet entry : fetched.getChangeSets()) {
+            if (!known.contains(key(entry))) {
+                added.add(entry);
+            }
+        }
+
+        List<ChangeSet> entries = new ArrayList<>(cached.getChangeSets().size() + added.size());
+        if (isAscending(cached.getChangeSets())) {
+            entries.addAll(cached.getChangeSets());
+            entries.addAll(added);
+        } else {
+            entries.addAll(added);
+            entries.addAll(cached.getChangeSets());
+        }
+
+        if (windowStart != null) {
+            entries.removeIf(entry -> entry.getDate() != null && entry.getDate().before(windowStart));
+        }
+
+        Date startDate = windowStart != null ? windowStart : cached.getStartDate();
+        Date endDate = fetched.getEndDate() != null ? fetched.getEndDate() : new Date();
+
+        return new ChangeLogSet(entries, startDate, endDate);
+    }
+
+    private static boolean isAscending(List<ChangeSet> entries) {
+        if (entries.size() < 2) {
+            return false;
+        }
+        Date first = entries.get(0).getDate();
+        Date last = entries.get(entries.size() - 1).getDate();
+        return first != null && last != null && first.before(last);
+    }
+
+    private static long seconds(Date date) {
+        return date.getTime() / SECOND;
+    }
+
+    private static String key(ChangeSet entry) {
+        Long revision = TagRangeSplitter.getRevision(entry);
+        if (revision != null) {
+            return String.valueOf(revision);
+        }
+
+        // the xml cache only keeps the dates to the second
+        StringBuilder key = new StringBuilder();
+        key.append(entry.getDate() != null ? seconds(entry.getDate()) : "")
+                .append('\n')
+                .append(entry.getAuthor())
+                .append('\n')
+                .append(entry.getComment());
+        for (ChangeFile file : entry.getFiles()) {
+            key.append('\n').append(file.getName()).append('@').append(file.getRevision());
+        }
+        return key.toString();
+    }
+}
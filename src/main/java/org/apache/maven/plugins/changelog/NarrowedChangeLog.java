@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.ScmFileSet;
+import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+
+/**
+ * Fetches the changed sets of the paths below <code>basedir</code> the includes are confined to, instead of those of
+ * all of <code>basedir</code>. The changelog commands of the providers don't look at the files of the file set: Git
+ * logs the directory it runs in and Subversion the url it is given. So the command is run once for each path, in
+ * that directory with Git and with the url of that directory with Subversion, and the results are merged. The other
+ * providers can't be narrowed down, they log all of <code>basedir</code>.
+ *
+ * @since 3.0.0
+ */
+final class NarrowedChangeLog {
+    /**
+     * A changelog command of the provider.
+     */
+    interface Command {
+        ChangeLogScmResult changeLog(ScmRepository repository, ScmFileSet fileSet) throws ScmException;
+    }
+
+    private NarrowedChangeLog() {
+        // utility class
+    }
+
+    /**
+     * @param provider the SCM provider
+     * @return whether the changelog command of the provider can be narrowed down to paths
+     */
+    static boolean canNarrow(String provider) {
+        return "git".equals(provider) || "svn".equals(provider);
+    }
+
+    /**
+     * runs the command for <code>basedir</code>, or once for each path below it
+     *
+     * @param repository  the repository of <code>workingCopy</code>
+     * @param workingCopy the directory the url of the repository points to
+     * @param basedir     the directory the changed sets are fetched for
+     * @param roots       the paths below <code>basedir</code> to fetch the changed sets of, empty for all of it
+     * @param command     the changelog command
+     * @return the result of the command, or the merged results of the commands for each path, or the first of them
+     *         that failed
+     * @throws ScmException if the command failed
+     */
+    static ChangeLogScmResult changeLog(
+            ScmRepository repository, File workingCopy, File basedir, List<File> roots, Command command)
+            throws ScmException {
+        if (roots.isEmpty()) {
+            return command.changeLog(repository, new ScmFileSet(basedir));
+        }
+
+        // Git can only run in a directory, so a file is logged with the directory it is in
+        Set<File> directories = new LinkedHashSet<>();
+        for (File root : roots) {
+            File path = new File(basedir, root.getPath());
+            directories.add(path.isFile() ? path.getParentFile() : path);
+        }
+
+        ChangeLogScmResult first = null;
+        List<ChangeLogSet> changeLogSets = new ArrayList<>(directories.size());
+        for (File directory : directories) {
+            ChangeLogScmResult result =
+                    command.changeLog(narrow(repository, workingCopy, directory), new ScmFileSet(directory));
+            if (result == null || !result.isSuccess()) {
+                return result;
+            }
+            if (first == null) {
+                first = result;
+            }
+            changeLogSets.add(result.getChangeLog());
+        }
+
+        return new ChangeLogScmResult(merge(changeLogSets), first);
+    }
+
+    /**
+     * @return the repository of the directory: with Subversion the url extended by the path of the directory in the
+     *         working copy, with Git the same repository, as it logs the directory it runs in
+     */
+    static ScmRepository narrow(ScmRepository repository, File workingCopy, File directory) {
+        if (!"svn".equals(repository.getProvider())) {
+            return repository;
+        }
+
+        Path base = workingCopy.toPath().toAbsolutePath().normalize();
+        Path path = directory.toPath().toAbsolutePath().normalize();
+        if (!path.startsWith(base)) {
+            throw new IllegalArgumentException(directory + " is not below " + workingCopy);
+        }
+
+        SvnScmProviderRepository svnRepository = (SvnScmProviderRepository) repository.getProviderRepository();
+        String relative = base.relativize(path).toString().replace('\\', '/');
+        String url = relative.isEmpty() ? svnRepository.getUrl() : svnRepository.getUrl() + '/' + relative;
+
+        SvnScmProviderRepository narrowed =
+                new SvnScmProviderRepository(url, svnRepository.getUser(), svnRepository.getPassword());
+        narrowed.setPrivateKey(svnRepository.getPrivateKey());
+        narrowed.setPassphrase(svnRepository.getPassphrase());
+        // the tags and branches stay those of the whole project
+        narrowed.setTagBase(svnRepository.getTagBase());
+        narrowed.setBranchBase(svnRepository.getBranchBase());
+        return new ScmRepository(repository.getProvider(), narrowed);
+    }
+
+    /**
+     * merges the changed sets of several paths, a commit reported for more than one of them is kept once with the
+     * files of all of them
+     *
+     * @param changeLogSets the changed sets of the paths, over the same range
+     * @return the commits of all paths, newest first
+     */
+    static ChangeLogSet merge(List<ChangeLogSet> changeLogSets) {
+        Map<String, ChangeSet> entries = new LinkedHashMap<>();
+        Date startDate = null;
+        Date endDate = null;
+        for (ChangeLogSet changeLogSet : changeLogSets) {
+            for (ChangeSet entry : changeLogSet.getChangeSets()) {
+                ChangeSet merged = entries.putIfAbsent(key(entry), entry);
+                if (merged != null) {
+                    addFiles(merged, entry);
+                }
+            }
+            startDate = min(startDate, changeLogSet.getStartDate());
+            endDate = max(endDate, changeLogSet.getEndDate());
+        }
+
+        List<ChangeSet> sorted = new ArrayList<>(entries.values());
+        // a change set without a date is the oldest
+        sorted.sort((changeSet0, changeSet1) -> Long.compare(time(changeSet1), time(changeSet0)));
+
+        ChangeLogSet merged = new ChangeLogSet(sorted, startDate, endDate);
+        if (!changeLogSets.isEmpty()) {
+            merged.setStartVersion(changeLogSets.get(0).getStartVersion());
+            merged.setEndVersion(changeLogSets.get(0).getEndVersion());
+        }
+        return merged;
+    }
+
+    private static String key(ChangeSet entry) {
+        if (entry.getRevision() != null) {
+            return entry.getRevision();
+        }
+        return (entry.getDate() != null ? entry.getDate().getTime() : "") + "\n" + entry.getAuthor() + "\n"
+                + entry.getComment();
+    }
+
+    private static void addFiles(ChangeSet merged, ChangeSet entry) {
+        for (ChangeFile file : entry.getFiles()) {
+            boolean known = false;
+            for (ChangeFile other : merged.getFiles()) {
+                known |= other.getName().equals(file.getName());
+            }
+            if (!known) {
+                merged.addFile(file);
+            }
+        }
+    }
+
+    private static long time(ChangeSet entry) {
+        return entry.getDate() != null ? entry.getDate().getTime() : Long.MIN_VALUE;
+    }
+
+    private static Date min(Date date0, Date date1) {
+        return date0 == null || date1 != null && date1.before(date0) ? date1 : date0;
+    }
+
+    private static Date max(Date date0, Date date1) {
+        return date0 == null || date1 != null && date1.after(date0) ? date1 : date0;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+
+/**
+ * Permanent cache of the change log sets of ranges whose history can't change anymore, like the range between two
+ * tags. Each range is kept in its own file in the {@link BinaryChangeLog} format, named after a digest of its key.
+ *
+ * @since 3.0.0
+ */
+final class RangeCache {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    RangeCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param parts what identifies the range, e.g. the connection and the start and end revisions
+     * @return the key of the range
+     */
+    static String key(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                // CHECKSTYLE_OFF: MagicNumber
+                key.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                // CHECKSTYLE_ON: MagicNumber
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param key the key of the range
+     * @return the cached change log set, or <code>null</code> if the range is not cached
+     * @throws IOException when the cached range can't be read
+     */
+    ChangeLogSet get(String key) throws IOException {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        List<ChangeLogSet> sets = BinaryChangeLog.read(Files.readAllBytes(file.toPath()));
+        return sets.size() == 1 ? sets.get(0) : null;
+    }
+
+    /**
+     * @param key the key of the range
+     * @param set the change log set of the range
+     * @throws IOException when the range can't be cached
+     */
+    void put(String key, ChangeLogSet set) throws IOException {
+        // ranges fetched by several threads or builds at once are replaced, never read half written
+        CacheFiles.write(getFile(key), out -> BinaryChangeLog.write(Collections.singletonList(set), out));
+    }
+
+    private File getFile(String key) {
+        return new File(directory, key + ".bin");
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+
+/**
+ * The modules of a build, by their directory below the root of the build. Providers report the changed files by
+ * their path in the repository or the work tree, which starts with the location of the root of the build in either:
+ * a trailing part of its directory or of the path of the SCM url. A file belongs to the most nested module whose
+ * directory follows the longest of those locations its path starts with, or to the root module if none does.
+ *
+ * @since 3.0.0
+ */
+final class ReactorModules {
+    private final String root;
+
+    // the names of the modules in the order of the build, by their directory
+    private final Map<String, String> modules;
+
+    // the locations of the root of the build the reported paths may start with, the longest first
+    private final List<String> rootPrefixes;
+
+    /**
+     * @param root      the name of the root module
+     * @param modules   the names of the other modules in the order of the build, by their directory below the root
+     * @param rootPaths the paths of the root of the build, each trailing part of which the reported paths may start
+     *                  with
+     */
+    ReactorModules(String root, Map<String, String> modules, Collection<String> rootPaths) {
+        this.root = root;
+        this.modules = modules;
+
+        Set<String> prefixes = new HashSet<>();
+        prefixes.add("/");
+        for (String rootPath : rootPaths) {
+            String[] segments = rootPath.replace('\\', '/').split("/");
+            StringBuilder prefix = new StringBuilder("/");
+            for (int i = segments.length - 1; i >= 0; i--) {
+                if (!segments[i].isEmpty()) {
+                    prefix.insert(0, "/" + segments[i]);
+                    prefixes.add(prefix.toString());
+                }
+            }
+        }
+        rootPrefixes = new ArrayList<>(prefixes);
+        rootPrefixes.sort(Comparator.comparingInt(String::length).reversed());
+    }
+
+    /**
+     * @param basedir    the root directory of the build
+     * @param projects   the projects of the build, may be <code>null</code>
+     * @param connection the SCM connection of the root of the build
+     * @return the modules of the projects, named after their artifactId
+     */
+    static ReactorModules of(File basedir, List<MavenProject> projects, String connection) {
+        String root = basedir.getName();
+        Map<String, String> modules = new LinkedHashMap<>();
+        if (projects != null) {
+            Path rootPath = basedir.toPath().toAbsolutePath().normalize();
+            for (MavenProject project : projects) {
+                Path path = project.getBasedir().toPath().toAbsolutePath().normalize();
+                if (path.equals(rootPath)) {
+                    root = project.getArtifactId();
+                } else if (path.startsWith(rootPath)) {
+                    modules.put(rootPath.relativize(path).toString().replace('\\', '/'), project.getArtifactId());
+                }
+                // modules outside of the root directory can't be told apart, their files go to the root module
+            }
+        }
+        return new ReactorModules(
+                root, modules, Arrays.asList(basedir.getAbsolutePath(), getUrlPath(connection)));
+    }
+
+    /**
+     * @param connection an SCM connection
+     * @return the path of its url, empty if it has none
+     */
+    static String getUrlPath(String connection) {
+        int index = connection.indexOf("://");
+        if (index < 0) {
+            return "";
+        }
+        String path = connection.substring(index + 3);
+        index = path.indexOf('/');
+        if (index < 0) {
+            return "";
+        }
+        path = path.substring(index);
+        index = path.indexOf('?');
+        return index < 0 ? path : path.substring(0, index);
+    }
+
+    /**
+     * @param fileName the name of a changed file, as reported by the provider
+     * @return the name of the module the file belongs to
+     */
+    String getModule(String fileName) {
+        String name = fileName.replace('\\', '/');
+        if (!name.startsWith("/")) {
+            name = '/' + name;
+        }
+
+        for (String prefix : rootPrefixes) {
+            if (name.startsWith(prefix)) {
+                String path = name.substring(prefix.length());
+                String module = root;
+                int moduleLength = 0;
+                for (Map.Entry<String, String> entry : modules.entrySet()) {
+                    String directory = entry.getKey();
+                    if (path.startsWith(directory + '/') && directory.length() > moduleLength) {
+                        module = entry.getValue();
+                        moduleLength = directory.length();
+                    }
+                }
+                return module;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * @param entry a change set
+     * @return the names of the modules the files of the change set belong to, in the order of the build
+     */
+    List<String> getModules(ChangeSet entry) {
+        List<String> found = new ArrayList<>();
+        for (ChangeFile file : entry.getFiles()) {
+            String module = getModule(file.getName());
+            if (!found.contains(module)) {
+                found.add(module);
+            }
+        }
+
+        List<String> ordered = new ArrayList<>(found.size());
+        if (found.contains(root)) {
+            ordered.add(root);
+        }
+        for (String module : modules.values()) {
+            if (found.contains(module) && !ordered.contains(module)) {
+                ordered.add(module);
+            }
+        }
+        return ordered;
+    }
+}
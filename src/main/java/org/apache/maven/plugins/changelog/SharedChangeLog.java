@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmException;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.apache.maven.scm.provider.git.gitexe.command.GitCommandLineUtils;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+/**
+ * The change log sets of a whole Git work tree, fetched once per build by the first module asking for them. Git
+ * reports the changed files relative to the work tree, so each module takes the slice of the files below its own
+ * directory. That is what Git reports when the module is logged on its own as long as the history is linear: at a
+ * merge Git follows only the parent a path is unchanged from, so the log of a module can leave out commits of a
+ * merged branch that the log of the work tree has.
+ *
+ * @since 3.0.0
+ */
+final class SharedChangeLog {
+    private static final String CONTEXT_KEY = "changelog.shared:";
+
+    private SharedChangeLog() {}
+
+    /**
+     * @param directory a directory
+     * @return the root of the Git work tree the directory is in, or <code>null</code> if it's not in one
+     */
+    static File getWorkTree(File directory) {
+        for (File dir = directory.getAbsoluteFile(); dir != null; dir = dir.getParentFile()) {
+            // a directory in the main work tree, a file in linked work trees and submodules
+            if (new File(dir, ".git").exists()) {
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether Git may log a module differently from its slice of the work tree, because of merge commits in the
+     * history the change log sets are fetched from.
+     *
+     * @param workTree  the root of the work tree
+     * @param since     the date the change log sets start at, <code>null</code> for the whole history
+     * @param revisions the revisions the history is walked from
+     * @return <code>true</code> if there's a merge commit in the history
+     * @throws ScmException if the git command failed
+     */
+    static boolean hasMerges(File workTree, Date since, List<String> revisions) throws ScmException {
+        Commandline cl = GitCommandLineUtils.getBaseGitCommandLine(workTree, "rev-list");
+        cl.createArg().setValue("--merges");
+        cl.createArg().setValue("--max-count=1");
+        if (since != null) {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss Z");
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            cl.createArg().setValue("--since=" + format.format(since));
+        }
+        for (String revision : revisions) {
+            cl.createArg().setValue(revision);
+        }
+        cl.createArg().setValue("--");
+
+        CommandLineUtils.StringStreamConsumer stdout = new CommandLineUtils.StringStreamConsumer();
+        CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+        if (GitCommandLineUtils.execute(cl, stdout, stderr) != 0) {
+            throw new ScmException("The git command failed: " + stderr.getOutput());
+        }
+        return !stdout.getOutput().trim().isEmpty();
+    }
+
+    /**
+     * Fetches the change log sets, unless they were fetched for the same key in the build already. Other threads
+     * asking for them while they are fetched wait for them. The fetches are kept in the context of the top level
+     * project, so they end with the build.
+     *
+     * @param topLevelProject the top level project of the build
+     * @param key             what identifies the change log sets
+     * @param fetch           the fetch of the change log sets
+     * @return the change log sets, which must not be changed, or <code>null</code> if the fetch returned it
+     * @throws Exception the failure of the fetch
+     */
+    static List<ChangeLogSet> get(MavenProject topLevelProject, String key, Callable<List<ChangeLogSet>> fetch)
+            throws Exception {
+        FutureTask<List<ChangeLogSet>> task = new FutureTask<>(fetch);
+        FutureTask<List<ChangeLogSet>> fetching;
+        // the context of a project is not thread-safe
+        synchronized (topLevelProject) {
+            @SuppressWarnings("unchecked")
+            FutureTask<List<ChangeLogSet>> shared =
+                    (FutureTask<List<ChangeLogSet>>) topLevelProject.getContextValue(CONTEXT_KEY + key);
+            fetching = shared;
+            if (fetching == null) {
+                topLevelProject.setContextValue(CONTEXT_KEY + key, task);
+            }
+        }
+        if (fetching == null) {
+            fetching = task;
+            task.run();
+        }
+
+        try {
+            return fetching.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Takes the change sets and files of a directory of the work tree. The change sets are copied, so that they can
+     * be filtered without changing the ones of the other modules.
+     *
+     * @param changeLogSets the change log sets of the whole work tree
+     * @param workTree      the root of the work tree
+     * @param directory     the directory
+     * @return the change log sets with the change sets having files in the directory, and only those files
+     */
+    static List<ChangeLogSet> slice(List<ChangeLogSet> changeLogSets, File workTree, File directory) {
+        Path path = workTree.toPath().toAbsolutePath().normalize();
+        String prefix = path.relativize(directory.toPath().toAbsolutePath().normalize())
+                .toString()
+                .replace('\\', '/');
+        if (!prefix.isEmpty()) {
+            prefix += '/';
+        }
+
+        List<ChangeLogSet> slices = new ArrayList<>(changeLogSets.size());
+        for (ChangeLogSet changeLogSet : changeLogSets) {
+            List<ChangeSet> entries = new ArrayList<>();
+            for (ChangeSet entry : changeLogSet.getChangeSets()) {
+                List<ChangeFile> files = new ArrayList<>();
+                for (ChangeFile file : entry.getFiles()) {
+                    if (file.getName().startsWith(prefix)) {
+                        files.add(file);
+                    }
+                }
+                if (!files.isEmpty()) {
+                    entries.add(copy(entry, files));
+                }
+            }
+
+            ChangeLogSet slice = new ChangeLogSet(entries, changeLogSet.getStartDate(), changeLogSet.getEndDate());
+            slice.setStartVersion(changeLogSet.getStartVersion());
+            slice.setEndVersion(changeLogSet.getEndVersion());
+            slices.add(slice);
+        }
+        return slices;
+    }
+
+    private static ChangeSet copy(ChangeSet entry, List<ChangeFile> files) {
+        ChangeSet copy = new ChangeSet();
+        copy.setDate(entry.getDate());
+        copy.setAuthor(entry.getAuthor());
+        copy.setComment(entry.getComment());
+        copy.setRevision(entry.getRevision());
+        copy.setFiles(files);
+        return copy;
+    }
+}
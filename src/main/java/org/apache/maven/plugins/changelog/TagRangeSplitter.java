@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+
+/**
+ * Splits the change sets of one log over several adjacent tag ranges into the change sets of each range, the way
+ * a separate log of each range would have returned them.
+ *
+ * @since 3.0.0
+ */
+final class TagRangeSplitter {
+    private TagRangeSplitter() {
+        // utility class
+    }
+
+    /**
+     * @param revision a revision
+     * @return the revision as a number, or <code>null</code> if it is not numeric
+     */
+    static Long parseRevision(String revision) {
+        if (revision == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(revision.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param entry a change set
+     * @return the revision of the change set as a number, or <code>null</code> if it has no numeric revision
+     */
+    static Long getRevision(ChangeSet entry) {
+        if (entry.getRevision() != null) {
+            return parseRevision(entry.getRevision());
+        }
+        return entry.getFiles().isEmpty() ? null : parseRevision(entry.getFiles().get(0).getRevision());
+    }
+
+    /**
+     * Selects the change sets of the range between two revisions, both included. Like the log of the range, the
+     * change sets are in ascending order of revision, or descending when the start revision is the higher one.
+     *
+     * @param entries       the change sets of the log, in any order
+     * @param startRevision the start of the range
+     * @param endRevision   the end of the range
+     * @return the change sets of the range, or <code>null</code> if one of the change sets has no numeric revision
+     */
+    static List<ChangeSet> select(List<ChangeSet> entries, long startRevision, long endRevision) {
+        long low = Math.min(startRevision, endRevision);
+        long high = Math.max(startRevision, endRevision);
+
+        List<ChangeSet> selected = new ArrayList<>();
+        for (ChangeSet entry : entries) {
+            Long revision = getRevision(entry);
+            if (revision == null) {
+                return null;
+            }
+            if (revision >= low && revision <= high) {
+                selected.add(entry);
+            }
+        }
+
+        selected.sort((a, b) -> Long.compare(getRevision(a), getRevision(b)));
+        if (startRevision > endRevision) {
+            Collections.reverse(selected);
+        }
+
+        return selected;
+    }
+
+    /**
+     * Splits the range between two revisions, both included, off the log. The range is dated by its own change sets,
+     * not by the whole log.
+     *
+     * @param log           the log over several ranges
+     * @param startRevision the start of the range
+     * @param endRevision   the end of the range
+     * @return the changed sets of the range, or <code>null</code> if one of the change sets has no numeric revision
+     */
+    static ChangeLogSet split(ChangeLogSet log, long startRevision, long endRevision) {
+        List<ChangeSet> entries = select(log.getChangeSets(), startRevision, endRevision);
+        if (entries == null) {
+            return null;
+        }
+
+        Date startDate = null;
+        Date endDate = null;
+        for (ChangeSet entry : entries) {
+            Date date = entry.getDate();
+            if (date != null) {
+                if (startDate == null || date.before(startDate)) {
+                    startDate = date;
+                }
+                if (endDate == null || date.after(endDate)) {
+                    endDate = date;
+                }
+            }
+        }
+        return new ChangeLogSet(entries, startDate, endDate);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Revisions the tags of the SCM were resolved to, keyed by the tag url. The resolutions are shared by all report mojos
+ * of the build and can be kept in a file for later builds. As a tag may be deleted and created again, those kept in
+ * the file are only used once the listing of the tag base in the build confirmed them.
+ *
+ * @since 3.0.0
+ */
+final class TagRevisionCache {
+    /**
+     * The resolutions of a build, shared by its report mojos.
+     */
+    static final class Resolutions {
+        private static final String CONTEXT_KEY = "changelog.tagRevisions";
+
+        private final ConcurrentMap<String, String> resolved = new ConcurrentHashMap<>();
+
+        // the tags of the tag bases listed in the build, by tag base ending with a slash
+        private final ConcurrentMap<String, Set<String>> listed = new ConcurrentHashMap<>();
+
+        /**
+         * @param topLevelProject the top level project of the build
+         * @return the resolutions of the build, kept in the context of the top level project
+         */
+        static Resolutions of(MavenProject topLevelProject) {
+            // the context of a project is not thread-safe
+            synchronized (topLevelProject) {
+                Resolutions resolutions = (Resolutions) topLevelProject.getContextValue(CONTEXT_KEY);
+                if (resolutions == null) {
+                    resolutions = new Resolutions();
+                    topLevelProject.setContextValue(CONTEXT_KEY, resolutions);
+                }
+                return resolutions;
+            }
+        }
+    }
+
+    private final File file;
+
+    private final Resolutions resolutions;
+
+    // the resolutions of this report to add to the file
+    private final Map<String, String> added = new HashMap<>();
+
+    private boolean modified;
+
+    /**
+     * @param file        the file the resolutions are kept in, <code>null</code> to keep them for this build only
+     * @param resolutions the resolutions of the build
+     */
+    TagRevisionCache(File file, Resolutions resolutions) {
+        this.file = file;
+        this.resolutions = resolutions;
+    }
+
+    /**
+     * reads the resolutions kept in the file. Those below a tag base listed in this build already are replaced by the
+     * listing.
+     *
+     * @throws IOException when the file can't be read
+     */
+    synchronized void load() throws IOException {
+        Properties stored = read();
+        for (String tagUrl : stored.stringPropertyNames()) {
+            if (isListed(tagUrl)) {
+                modified |= !stored.getProperty(tagUrl).equals(resolutions.resolved.get(tagUrl));
+            } else {
+                resolutions.resolved.putIfAbsent(tagUrl, stored.getProperty(tagUrl));
+            }
+        }
+    }
+
+    private Properties read() throws IOException {
+        Properties stored = new Properties();
+        if (file != null && file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                stored.load(in);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * @param tagBase the url of the tag base
+     * @return whether the tag base has been listed in this build
+     */
+    boolean isListed(String tagBase) {
+        String prefix = tagBase.endsWith("/") ? tagBase : tagBase + '/';
+        for (String listed : resolutions.listed.keySet()) {
+            if (prefix.startsWith(listed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the resolutions of the tags below a tag base with its listing: the tags it doesn't contain anymore are
+     * forgotten, those created again get their new revision.
+     *
+     * @param tagBase   the url of the tag base
+     * @param revisions the revisions of the tags below the tag base, by tag url
+     */
+    synchronized void putListing(String tagBase, Map<String, String> revisions) {
+        String prefix = tagBase.endsWith("/") ? tagBase : tagBase + '/';
+
+        resolutions.resolved.keySet().removeIf(tagUrl -> tagUrl.startsWith(prefix) && !revisions.containsKey(tagUrl));
+        resolutions.resolved.putAll(revisions);
+        resolutions.listed.put(prefix, new HashSet<>(revisions.keySet()));
+        modified = true;
+    }
+
+    /**
+     * @param tagUrl the url of the tag
+     * @return the revision the tag was resolved to, or <code>null</code>
+     */
+    String get(String tagUrl) {
+        return resolutions.resolved.get(tagUrl);
+    }
+
+    /**
+     * @param tagUrl   the url of the tag
+     * @param revision the revision the tag was resolved to
+     */
+    synchronized void put(String tagUrl, String revision) {
+        resolutions.resolved.put(tagUrl, revision);
+        added.put(tagUrl, revision);
+        modified = true;
+    }
+
+    /**
+     * writes the resolutions to the file, if there are new ones. The file is read again while it is locked, so that
+     * the resolutions other builds stored in the meantime are kept.
+     *
+     * @throws IOException when the file can't be written
+     */
+    synchronized void store() throws IOException {
+        if (file == null || !modified) {
+            return;
+        }
+
+        try (CacheFiles.Lock lock = CacheFiles.lock(file)) {
+            Properties stored = read();
+            boolean changed = false;
+            for (Map.Entry<String, Set<String>> listing : resolutions.listed.entrySet()) {
+                for (String tagUrl : listing.getValue()) {
+                    String revision = resolutions.resolved.get(tagUrl);
+                    changed |= revision != null && !revision.equals(stored.setProperty(tagUrl, revision));
+                }
+                changed |= stored.keySet()
+                        .removeIf(tagUrl -> ((String) tagUrl).startsWith(listing.getKey())
+                                && !listing.getValue().contains(tagUrl));
+            }
+            for (Map.Entry<String, String> entry : added.entrySet()) {
+                changed |= !entry.getValue().equals(stored.setProperty(entry.getKey(), entry.getValue()));
+            }
+
+            if (changed) {
+                CacheFiles.write(file, out -> stored.store(out, "changelog tag revisions"));
+            }
+        }
+        added.clear();
+        modified = false;
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.maven.plugins.changelog.scm.provider.svn.svnexe.command.info;
 
 import java.io.File;
 import java.util.Iterator;
+import java.util.Map;
 
 import org.apache.maven.scm.CommandParameters;
 import org.apache.maven.scm.ScmException;
@@ -38,6 +39,7 @@ import org.apache.maven.scm.provider.svn.svnexe.command.info.SvnInfoConsumer;
 import org.codehaus.plexus.util.cli.CommandLineException;
 import org.codehaus.plexus.util.cli.CommandLineUtils;
 import org.codehaus.plexus.util.cli.Commandline;
+import org.codehaus.plexus.util.cli.StreamConsumer;
 
 /**
  * variation of SvnInfoCommand to work for branches. Taken from 1.7 release of maven-scm-providers
@@ -77,28 +79,55 @@ public class SvnInfoCommandExpanded extends AbstractCommand implements SvnComman
         return executeInfoCommand(cl);
     }
 
+    /**
+     * Lists the tag base once to resolve all tags at the same time.
+     *
+     * @return the last changed revision of each tag, by tag name
+     * @throws ScmException when the tags can't be listed
+     */
+    public Map<String, String> executeListTagsCommand(
+            final SvnScmProviderRepository repository, final ScmFileSet fileSet) throws ScmException {
+        Commandline cl = createListTagsCommandLine(repository, fileSet);
+
+        SvnListTagsConsumer consumer = new SvnListTagsConsumer();
+
+        CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+
+        if (execute(cl, consumer, stderr) != 0) {
+            throw new ScmException("The svn command failed: " + stderr.getOutput());
+        }
+
+        return consumer.getTagRevisions();
+    }
+
     private InfoScmResult executeInfoCommand(final Commandline cl) throws ScmException {
 
         SvnInfoConsumer consumer = new SvnInfoConsumer();
 
         CommandLineUtils.StringStreamConsumer stderr = new CommandLineUtils.StringStreamConsumer();
+
+        int exitCode = execute(cl, consumer, stderr);
+
+        if (exitCode != 0) {
+            return new InfoScmResult(cl.toString(), "The svn command failed.", stderr.getOutput(), false);
+        }
+
+        return new InfoScmResult(cl.toString(), consumer.getInfoItems());
+    }
+
+    private int execute(
+            final Commandline cl, final StreamConsumer consumer, final CommandLineUtils.StringStreamConsumer stderr)
+            throws ScmException {
         if (logger.isInfoEnabled()) {
             logger.info("Executing: " + SvnCommandLineUtils.cryptPassword(cl));
             logger.info("Working directory: " + cl.getWorkingDirectory().getAbsolutePath());
         }
 
-        int exitCode;
         try {
-            exitCode = SvnCommandLineUtils.execute(cl, consumer, stderr);
+            return SvnCommandLineUtils.execute(cl, consumer, stderr);
         } catch (CommandLineException ex) {
             throw new ScmException("Error while executing command.", ex);
         }
-
-        if (exitCode != 0) {
-            return new InfoScmResult(cl.toString(), "The svn command failed.", stderr.getOutput(), false);
-        }
-
-        return new InfoScmResult(cl.toString(), consumer.getInfoItems());
     }
 
     // set scope to protected to allow test to call it directly
@@ -132,6 +161,21 @@ public class SvnInfoCommandExpanded extends AbstractCommand implements SvnComman
         return cl;
     }
 
+    // set scope to protected to allow test to call it directly
+    protected static Commandline createListTagsCommandLine(
+            final SvnScmProviderRepository repository, final ScmFileSet fileSet) {
+        Commandline cl = SvnCommandLineUtils.getBaseSvnCommandLine(fileSet.getBasedir(), repository, false);
+
+        cl.createArg().setValue("list");
+
+        cl.createArg().setValue("--xml");
+
+        String tagBase = SvnTagBranchUtils.resolveTagBase(repository);
+        cl.createArg().setValue(SvnCommandUtils.fixUrl(tagBase, repository.getUser()));
+
+        return cl;
+    }
+
     // set scope to protected to allow test to call it directly
     protected static Commandline createTagCommandLine(
             final SvnScmProviderRepository repository,
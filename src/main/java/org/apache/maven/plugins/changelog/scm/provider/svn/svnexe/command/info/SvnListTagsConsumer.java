@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog.scm.provider.svn.svnexe.command.info;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.scm.ScmException;
+import org.codehaus.plexus.util.cli.StreamConsumer;
+
+/**
+ * Collects the output of <code>svn list --xml</code> on the tag base and maps every tag directory to the revision it
+ * was last changed in.
+ */
+public class SvnListTagsConsumer implements StreamConsumer {
+    private final StringBuilder output = new StringBuilder();
+
+    /** {@inheritDoc} */
+    public void consumeLine(String line) {
+        output.append(line).append('\n');
+    }
+
+    /**
+     * @return the last changed revision of each tag, by tag name
+     * @throws ScmException when the output can't be parsed
+     */
+    public Map<String, String> getTagRevisions() throws ScmException {
+        Map<String, String> tagRevisions = new LinkedHashMap<>();
+
+        try {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+            XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(output.toString()));
+
+            boolean directory = false;
+            String name = null;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                String element = reader.getLocalName();
+                if ("entry".equals(element)) {
+                    directory = "dir".equals(reader.getAttributeValue(null, "kind"));
+                    name = null;
+                } else if ("name".equals(element)) {
+                    name = reader.getElementText().trim();
+                } else if ("commit".equals(element) && directory && name != null) {
+                    tagRevisions.put(name, reader.getAttributeValue(null, "revision"));
+                }
+            }
+
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new ScmException("Can't parse the tags listed by svn.", e);
+        }
+
+        return tagRevisions;
+    }
+}
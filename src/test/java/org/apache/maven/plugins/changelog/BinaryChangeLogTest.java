@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmRevision;
+import org.apache.maven.scm.ScmVersion;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class BinaryChangeLogTest {
+    @Test
+    public void testRoundTripOfXmlCache() throws Exception {
+        File inputFile = new File(System.getProperty("basedir"), "src/test/changelog-xml/min-changelog.xml");
+        List<ChangeLogSet> expected;
+        try (InputStream in = Files.newInputStream(inputFile.toPath())) {
+            expected = ChangeLog.loadChangedSets(in);
+        }
+
+        List<ChangeLogSet> actual = roundTrip(expected);
+
+        assertEquals("Test number of changelog sets", expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSetEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testRoundTripOfVersionsAndRevisions() throws Exception {
+        ChangeSet entry = new ChangeSet();
+        entry.setAuthor("dennisl");
+        entry.setDate(new Date(-1000L));
+        entry.addFile(new ChangeFile("/trunk/pom.xml", "a94a8fe5ccb19ba61c4c0873d391e987982fbbd3"));
+        entry.addFile(new ChangeFile("/trunk/README", "007"));
+        entry.addFile(new ChangeFile("/trunk/LICENSE", "1234567890123"));
+        entry.addFile(new ChangeFile("/trunk/NOTICE"));
+
+        List<ChangeSet> entries = new ArrayList<>();
+        entries.add(entry);
+        ChangeLogSet set = new ChangeLogSet(entries, null, new Date());
+        set.setStartVersion(new ScmRevision("maven-changelog-plugin-2.3"));
+
+        ChangeLogSet actual = roundTrip(Collections.singletonList(set)).get(0);
+
+        assertSetEquals(set, actual);
+        assertNull("Test missing end version", actual.getEndVersion());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherData() throws Exception {
+        BinaryChangeLog.read("<?xml version=\"1.0\"?>".getBytes("UTF-8"));
+    }
+
+    @Test
+    public void testRejectsCorruptData() throws Exception {
+        File inputFile = new File(System.getProperty("basedir"), "src/test/changelog-xml/min-changelog.xml");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = Files.newInputStream(inputFile.toPath())) {
+            BinaryChangeLog.write(ChangeLog.loadChangedSets(in), out);
+        }
+        byte[] data = out.toByteArray();
+
+        for (int length = 0; length < data.length; length++) {
+            try {
+                BinaryChangeLog.read(Arrays.copyOf(data, length));
+                fail("Test truncated to " + length + " bytes");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+
+        // every byte set to values that make counts, indexes and lengths too large
+        for (int position = 0; position < data.length; position++) {
+            for (int value : new int[] {0x00, 0x7F, 0xFF}) {
+                byte[] corrupt = data.clone();
+                corrupt[position] = (byte) value;
+                try {
+                    BinaryChangeLog.read(corrupt);
+                } catch (IOException e) {
+                    // expected, unless the byte still makes a valid document
+                }
+            }
+        }
+    }
+
+    private static List<ChangeLogSet> roundTrip(List<ChangeLogSet> changeLogSets) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryChangeLog.write(changeLogSets, out);
+        return BinaryChangeLog.read(out.toByteArray());
+    }
+
+    private static void assertSetEquals(ChangeLogSet expected, ChangeLogSet actual) {
+        assertEquals("Test start date", expected.getStartDate(), actual.getStartDate());
+        assertEquals("Test end date", expected.getEndDate(), actual.getEndDate());
+        assertEquals(
+                "Test start version", versionName(expected.getStartVersion()), versionName(actual.getStartVersion()));
+        assertEquals("Test end version", versionName(expected.getEndVersion()), versionName(actual.getEndVersion()));
+        assertEquals("Test number of entries", expected.getChangeSets().size(), actual.getChangeSets().size());
+
+        for (int i = 0; i < expected.getChangeSets().size(); i++) {
+            ChangeSet expectedEntry = expected.getChangeSets().get(i);
+            ChangeSet actualEntry = actual.getChangeSets().get(i);
+
+            assertEquals("Test date", expectedEntry.getDate(), actualEntry.getDate());
+            assertEquals("Test author", expectedEntry.getAuthor(), actualEntry.getAuthor());
+            assertEquals("Test msg", expectedEntry.getComment(), actualEntry.getComment());
+            assertEquals("Test number of files", expectedEntry.getFiles().size(), actualEntry.getFiles().size());
+
+            for (int j = 0; j < expectedEntry.getFiles().size(); j++) {
+                ChangeFile expectedFile = expectedEntry.getFiles().get(j);
+                ChangeFile actualFile = actualEntry.getFiles().get(j);
+
+                assertEquals("Test file name", expectedFile.getName(), actualFile.getName());
+                assertEquals("Test file revision", expectedFile.getRevision(), actualFile.getRevision());
+            }
+        }
+    }
+
+    private static String versionName(ScmVersion version) {
+        return version != null ? version.getName() : null;
+    }
+}
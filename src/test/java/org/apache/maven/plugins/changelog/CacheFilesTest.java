@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CacheFilesTest {
+    @Test
+    public void testWrite() throws Exception {
+        File dir = new File(System.getProperty("basedir"), "target/test-cache-files/" + System.nanoTime());
+        File file = new File(dir, "changelog.xml");
+
+        CacheFiles.write(file, out -> out.write("first".getBytes(StandardCharsets.UTF_8)));
+        CacheFiles.write(file, out -> out.write("second".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("second", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+
+        try {
+            CacheFiles.write(file, out -> {
+                out.write("third".getBytes(StandardCharsets.UTF_8));
+                throw new IOException("failed");
+            });
+            fail("Test failed write");
+        } catch (IOException e) {
+            assertEquals("failed", e.getMessage());
+        }
+
+        assertEquals("second", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        assertEquals("Test no temporary file left", 1, dir.list().length);
+    }
+
+    @Test
+    public void testLock() throws Exception {
+        File file = new File(System.getProperty("basedir"), "target/test-cache-files/" + System.nanoTime() + ".xml");
+        AtomicBoolean locked = new AtomicBoolean();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> other;
+            try (CacheFiles.Lock lock = CacheFiles.lock(file)) {
+                // reentrant for the thread holding it
+                CacheFiles.lock(file).close();
+
+                other = executor.submit(() -> {
+                    try (CacheFiles.Lock otherLock = CacheFiles.lock(file)) {
+                        locked.set(true);
+                    }
+                    return null;
+                });
+
+                try {
+                    other.get(200, TimeUnit.MILLISECONDS);
+                    fail("Test the lock is held");
+                } catch (TimeoutException e) {
+                    assertFalse(locked.get());
+                }
+            }
+
+            other.get(10, TimeUnit.SECONDS);
+            assertTrue(locked.get());
+            assertFalse("Test no lock file next to the cache file", new File(file.getPath() + ".lock").exists());
+            assertTrue(Files.exists(CacheFiles.getLockFile(file)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the time the combined automaton of {@link ChangeFileFilter} and one regular expression per pattern take
+ * to filter generated file names. Not a test, run it by hand with the number of patterns and of names as arguments,
+ * e.g. <code>200 5000000</code>.
+ */
+public final class ChangeFileFilterBenchmark {
+    private static final String[] DIRECTORIES = {"src", "main", "test", "java", "org", "apache", "maven", "site"};
+
+    private static final String[] FILES = {"Foo", "Bar", "FooTest", "BarIT", "package-info", "index", "pom", "site"};
+
+    private static final String[] EXTENSIONS = {".java", ".xml", ".apt", ".properties", ".txt", ".vm"};
+
+    private ChangeFileFilterBenchmark() {}
+
+    public static void main(String[] args) {
+        // CHECKSTYLE_OFF: MagicNumber
+        int patternCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int nameCount = args.length > 1 ? Integer.parseInt(args[1]) : 5000000;
+        Random random = new Random(42);
+
+        String[] includes = new String[patternCount / 2];
+        String[] excludes = new String[patternCount - includes.length];
+        for (int i = 0; i < includes.length; i++) {
+            includes[i] = randomPath(random, 3) + "/**/*" + EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+        }
+        for (int i = 0; i < excludes.length; i++) {
+            excludes[i] = "**/" + randomPath(random, 2) + "/*" + FILES[random.nextInt(FILES.length)] + "*";
+        }
+
+        // the distinct files of a repository, that the changes touch over and over
+        String[] names = new String[Math.min(nameCount, 20000)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = randomPath(random, 6) + "/" + FILES[random.nextInt(FILES.length)]
+                    + EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+        }
+        // CHECKSTYLE_ON: MagicNumber
+
+        long seed = random.nextLong();
+        random.setSeed(seed);
+        long start = System.nanoTime();
+        ChangeFileFilter filter = new ChangeFileFilter(includes, excludes);
+        long built = System.nanoTime();
+        int accepted = 0;
+        for (int i = 0; i < nameCount; i++) {
+            if (filter.accept(names[random.nextInt(names.length)])) {
+                accepted++;
+            }
+        }
+        long end = System.nanoTime();
+        System.out.println("automaton: compiled " + filter.isCompiled() + ", built in " + millis(start, built)
+                + " ms, " + accepted + " accepted in " + millis(built, end) + " ms");
+
+        random.setSeed(seed);
+        start = System.nanoTime();
+        List<Pattern> includePatterns = compile(includes);
+        List<Pattern> excludePatterns = compile(excludes);
+        built = System.nanoTime();
+        accepted = 0;
+        for (int i = 0; i < nameCount; i++) {
+            String name = names[random.nextInt(names.length)];
+            if (matchesAny(includePatterns, name) && !matchesAny(excludePatterns, name)) {
+                accepted++;
+            }
+        }
+        end = System.nanoTime();
+        System.out.println("regular expressions: built in " + millis(start, built) + " ms, " + accepted
+                + " accepted in " + millis(built, end) + " ms");
+    }
+
+    private static String randomPath(Random random, int maxDepth) {
+        StringBuilder path = new StringBuilder(DIRECTORIES[random.nextInt(DIRECTORIES.length)]);
+        for (int depth = random.nextInt(maxDepth); depth > 0; depth--) {
+            path.append('/').append(DIRECTORIES[random.nextInt(DIRECTORIES.length)]);
+        }
+        return path.toString();
+    }
+
+    private static List<Pattern> compile(String[] patterns) {
+        List<Pattern> compiled = new ArrayList<>();
+        for (String pattern : patterns) {
+            compiled.add(ChangeFileFilter.compilePattern(pattern));
+        }
+        return compiled;
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String name) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long millis(long start, long end) {
+        // CHECKSTYLE_OFF: MagicNumber
+        return (end - start) / 1000000L;
+        // CHECKSTYLE_ON: MagicNumber
+    }
+}
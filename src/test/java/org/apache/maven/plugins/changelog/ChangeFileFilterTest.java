@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeFileFilterTest {
+    private final File basedir = new File(System.getProperty("basedir"));
+
+    @Test
+    public void testIncludeRoots() {
+        assertEquals(
+                Arrays.asList(new File("src/main"), new File("pom.xml")),
+                includeRoots("src/main/**", "src/main/java/**/*.java", "pom.xml"));
+        assertEquals(Collections.singletonList(new File("src/test")), includeRoots("src/test/*"));
+    }
+
+    @Test
+    public void testIncludesWithoutRoots() {
+        assertEquals(Collections.emptyList(), includeRoots());
+        assertEquals(Collections.emptyList(), includeRoots("src/main/**", "**/*.java"));
+        assertEquals(Collections.emptyList(), includeRoots("src/missing/**"));
+        assertEquals(Collections.emptyList(), includeRoots("/trunk/src/main/**"));
+    }
+
+    @Test
+    public void testAccept() {
+        ChangeFileFilter filter = new ChangeFileFilter(
+                new String[] {"src/main/**", "*.xml"}, new String[] {"**/*Test.java", "src/main/resources/*"});
+
+        assertTrue(filter.isCompiled());
+        assertTrue(filter.accept("src/main/java/Foo.java"));
+        assertTrue(filter.accept("pom.xml"));
+        assertFalse(filter.accept("src/site/site.xml"));
+        assertFalse(filter.accept("src/main/java/FooTest.java"));
+        assertFalse(filter.accept("src/main/resources/foo.properties"));
+        assertTrue(filter.accept("src/main/resources/META-INF/foo.properties"));
+        assertFalse(filter.accept("src/test/java/Foo.java"));
+    }
+
+    @Test
+    public void testDecisionsAreKept() {
+        ChangeFileFilter filter = new ChangeFileFilter(new String[] {"src/**"}, null);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(filter.accept("src/main/java/Foo.java"));
+            assertFalse(filter.accept("pom.xml"));
+        }
+
+        assertEquals(2, filter.getMisses());
+        assertEquals(4, filter.getHits());
+    }
+
+    @Test
+    public void testSelect() {
+        String[] includes = {"src/**"};
+        String[] excludes = {"**/*Test.java"};
+        String[] names = {"src/main/java/Foo.java", "src/test/java/FooTest.java", "pom.xml", "src/site/site.xml"};
+
+        Random random = new Random(42);
+        List<ChangeSet> entries = new ArrayList<>();
+        for (int i = 0; i < ChangeFileFilter.PARALLEL_THRESHOLD * 2; i++) {
+            ChangeSet entry = new ChangeSet();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                entry.addFile(new ChangeFile(names[random.nextInt(names.length)] + random.nextInt(100), "1"));
+            }
+            entries.add(entry);
+        }
+
+        List<List<ChangeFile>> selected = new ChangeFileFilter(includes, excludes).select(entries);
+
+        ChangeFileFilter filter = new ChangeFileFilter(includes, excludes);
+        assertEquals(entries.size(), selected.size());
+        for (int i = 0; i < entries.size(); i++) {
+            List<ChangeFile> files = entries.get(i).getFiles();
+            List<ChangeFile> expected = new ArrayList<>();
+            for (ChangeFile file : files) {
+                if (filter.accept(file.getName())) {
+                    expected.add(file);
+                }
+            }
+            assertEquals(expected, selected.get(i));
+            assertEquals(expected.size() == files.size(), selected.get(i) == files);
+        }
+    }
+
+    @Test
+    public void testAcceptWithoutIncludes() {
+        ChangeFileFilter filter = new ChangeFileFilter(null, new String[] {"**\\*.txt"});
+
+        assertTrue(filter.accept("src\\main\\Foo.java"));
+        assertFalse(filter.accept("src\\main\\readme.txt"));
+        assertTrue(new ChangeFileFilter(null, null).accept("anything"));
+    }
+
+    @Test
+    public void testAcceptLikeRegularExpressions() {
+        Random random = new Random(42);
+        char[] patternChars = {'a', 'b', '/', '\\', '.', '*', '\u00e9'};
+        char[] nameChars = {'a', 'b', 'c', '/', '\\', '.', '\n', '\u00e9', '\u00fc'};
+
+        for (int run = 0; run < 500; run++) {
+            String[] includes = randomStrings(random, patternChars, random.nextInt(4));
+            String[] excludes = randomStrings(random, patternChars, random.nextInt(3));
+            ChangeFileFilter filter = new ChangeFileFilter(includes, excludes);
+
+            for (String name : randomStrings(random, nameChars, 200)) {
+                assertEquals(
+                        Arrays.toString(includes) + " " + Arrays.toString(excludes) + " " + name,
+                        matchesAny(includes, name, true) && !matchesAny(excludes, name, false),
+                        filter.accept(name));
+            }
+        }
+    }
+
+    private static String[] randomStrings(Random random, char[] chars, int count) {
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            char[] string = new char[random.nextInt(8)];
+            for (int j = 0; j < string.length; j++) {
+                string[j] = chars[random.nextInt(chars.length)];
+            }
+            strings[i] = new String(string);
+        }
+        return strings;
+    }
+
+    private static boolean matchesAny(String[] patterns, String name, boolean whenEmpty) {
+        if (patterns.length == 0) {
+            return whenEmpty;
+        }
+        for (String pattern : patterns) {
+            if (ChangeFileFilter.compilePattern(pattern).matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<File> includeRoots(String... includes) {
+        return ChangeFileFilter.getIncludeRoots(includes, basedir);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.StringReader;
+
+/**
+ * Measures the time {@link ChangeLog#loadChangedSets(java.io.Reader)} takes to read generated documents of 1, 2 and 4
+ * times the given number of entries and of lines of a long commit message. The time growing faster than the size
+ * shows a quadratic step. Not a test, run it by hand with the number of entries and of message lines as arguments,
+ * e.g. <code>100000 200000</code>.
+ */
+public final class ChangeLogBenchmark {
+    private ChangeLogBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        // CHECKSTYLE_OFF: MagicNumber
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int messageLines = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+
+        for (int factor = 1; factor <= 4; factor *= 2) {
+            long millis = time(generate(entries * factor, 0), 3) / 1000000L;
+            System.out.println(entries * factor + " entries read in " + millis + " ms");
+        }
+        for (int factor = 1; factor <= 4; factor *= 2) {
+            long millis = time(generate(1, messageLines * factor), 3) / 1000000L;
+            System.out.println(messageLines * factor + " message lines read in " + millis + " ms");
+        }
+        // CHECKSTYLE_ON: MagicNumber
+    }
+
+    /**
+     * @param xml  a changelog document
+     * @param runs the number of times to read it
+     * @return the shortest time it took to read the document, in nanoseconds
+     * @throws Exception if the document can't be read
+     */
+    static long time(String xml, int runs) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            ChangeLog.loadChangedSets(new StringReader(xml));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * @param entries      the number of changelog entries
+     * @param messageLines the number of lines of the message of the first entry, the others have a one line message
+     * @return the changelog document
+     */
+    static String generate(int entries, int messageLines) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<changelog>\n");
+        xml.append("  <changeset start=\"2005-02-25\" end=\"2005-02-26\">\n");
+        for (int i = 0; i < entries; i++) {
+            xml.append("    <changelog-entry>\n");
+            xml.append("      <date pattern=\"yyyy-MM-dd\">2005-02-25</date>\n");
+            xml.append("      <time pattern=\"HH:mm:ss\">12:00:00</time>\n");
+            // CHECKSTYLE_OFF: MagicNumber
+            xml.append("      <author><![CDATA[author").append(i % 10).append("]]></author>\n");
+            // CHECKSTYLE_ON: MagicNumber
+            xml.append("      <file>\n        <name>/path/to/file").append(i).append("</name>\n");
+            xml.append("        <revision>").append(i).append("</revision>\n      </file>\n");
+            xml.append("      <msg><![CDATA[");
+            xml.append(i == 0 ? message(messageLines) : "commit " + i);
+            xml.append("]]></msg>\n    </changelog-entry>\n");
+        }
+        xml.append("  </changeset>\n</changelog>");
+        return xml.toString();
+    }
+
+    /**
+     * @param lines the number of lines
+     * @return a long commit message
+     */
+    static String message(int lines) {
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            message.append("line ").append(i).append(" of a long commit message\n");
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ChangeLogModelTest {
+    @Test
+    public void testSummary() {
+        ChangeSet first = entry(1000L, "dion", "maven/project.xml", "maven/README");
+        ChangeSet second = entry(3000L, "edwin", "maven/project.xml");
+        ChangeSet third = entry(2000L, "dion", "maven/project.xml", "maven/LICENSE");
+        ChangeLogSet set = new ChangeLogSet(Arrays.asList(first, second, third), new Date(0L), new Date(4000L));
+
+        ChangeLogModel model = new ChangeLogModel(Collections.singletonList(set));
+        ChangeLogModel.Summary summary = model.getSummary(set);
+
+        assertSame(summary, model.getSummary(set));
+        assertEquals(Arrays.asList(second, third, first), summary.getChangeSets());
+        assertEquals(3, summary.getFilesChanged());
+        assertEquals(Arrays.asList(first, third), summary.getCommits().get("dion"));
+        assertEquals(3, summary.getFiles().get("dion").size());
+        assertEquals(1, summary.getFiles().get("edwin").size());
+        assertEquals(3, summary.getFileRevisions().get(0).size());
+        assertEquals("maven/project.xml", summary.getFileRevisions().get(0).get(0).getName());
+    }
+
+    @Test
+    public void testSummaryOfOtherSet() {
+        ChangeLogModel model = new ChangeLogModel(Collections.emptyList());
+        ChangeLogSet set = new ChangeLogSet(
+                Collections.singletonList(entry(1000L, "dion", "maven/project.xml")), new Date(0L), new Date(2000L));
+
+        assertEquals(1, model.getSummary(set).getFilesChanged());
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        ChangeSet first = entry(1000L, "dion", "maven/project.xml", "maven/README");
+        ChangeSet second = entry(3000L, "edwin", "maven/project.xml");
+        ChangeSet third = entry(2000L, "dion", "maven/project.xml", "maven/LICENSE");
+        ChangeLogSet set = new ChangeLogSet(Arrays.asList(first, second, third), new Date(0L), new Date(4000L));
+
+        StringWriter xml = new StringWriter();
+        ChangeLog.writeChangedSets(Collections.singletonList(set), "UTF-8", xml);
+
+        ChangeLogModel model;
+        try (ChangeLogReader reader = ChangeLogReader.open(new StringReader(xml.toString()))) {
+            model = ChangeLogModel.read(reader);
+        }
+
+        assertEquals(1, model.getChangeLogSets().size());
+        ChangeLogSet read = model.getChangeLogSets().get(0);
+        ChangeLogModel.Summary summary = model.getSummary(read);
+
+        assertEquals(3, read.getChangeSets().size());
+        assertEquals(3, summary.getChangeSets().size());
+        assertEquals("edwin", summary.getChangeSets().get(0).getAuthor());
+        assertEquals(3, summary.getFilesChanged());
+        assertEquals(2, summary.getCommits().get("dion").size());
+        assertEquals(3, summary.getFiles().get("dion").size());
+        assertEquals(3, summary.getFileRevisions().get(0).size());
+        assertEquals("maven/project.xml", summary.getFileRevisions().get(0).get(0).getName());
+    }
+
+    private static ChangeSet entry(long date, String author, String... names) {
+        ChangeSet entry = new ChangeSet();
+        entry.setDate(new Date(date));
+        entry.setAuthor(author);
+        entry.setComment("Tidy up");
+        for (String name : names) {
+            entry.addFile(new ChangeFile(name, String.valueOf(date)));
+        }
+        return entry;
+    }
+}
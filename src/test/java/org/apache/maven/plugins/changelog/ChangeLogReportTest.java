@@ -80,6 +80,37 @@ public class ChangeLogReportTest extends AbstractChangeLogReportTest {
         executeMojo("cached-plugin-config.xml");
     }
 
+    public void testPrefetch() throws Exception {
+        File pluginXmlFile = new File(getBasedir(), "src/test/plugin-configs/changelog/min-plugin-config.xml");
+
+        ChangeLogReport prefetch = (ChangeLogReport) lookupMojo("prefetch", pluginXmlFile);
+
+        this.setVariableValueToObject(prefetch, "manager", scmManager);
+
+        prefetch.execute();
+
+        ChangeLogReport mojo = (ChangeLogReport) lookupMojo("changelog", pluginXmlFile);
+
+        // the report mojos share the project of the module, and render the prefetched changed sets instead of
+        // fetching them again; each project stub has its own basedir, so the outputXML the prefetch resolved is
+        // handed over as the module's
+        this.setVariableValueToObject(mojo, "project", getVariableValueFromObject(prefetch, "project"));
+        this.setVariableValueToObject(mojo, "basedir", getVariableValueFromObject(prefetch, "basedir"));
+        this.setVariableValueToObject(mojo, "outputXML", getVariableValueFromObject(prefetch, "outputXML"));
+        this.setVariableValueToObject(mojo, "manager", new FailedScmManagerStub());
+        this.setVariableValueToObject(mojo, "outputXMLExpiration", 0);
+
+        mojo.execute();
+
+        File outputDir = (File) getVariableValueFromObject(mojo, "outputDirectory");
+
+        File outputHtml = new File(outputDir, "changelog.html");
+
+        renderer(mojo, outputHtml);
+
+        assertTrue(outputHtml.getAbsolutePath() + " not generated!", outputHtml.exists());
+    }
+
     public void testTypeException() throws Exception {
         try {
             executeMojo("inv-type-plugin-config.xml");
@@ -19,18 +19,32 @@
 package org.apache.maven.plugins.changelog;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.maven.scm.ChangeFile;
 import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmTag;
 import org.apache.maven.scm.command.changelog.ChangeLogSet;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Edwin Punzalan
@@ -147,6 +161,195 @@ public class ChangeLogTest {
         assertEquals("Test changelog 2 set 2 file 2 revision", "4", changeFile.getRevision());
     }
 
+    @Test
+    public void testStreamFile() throws Exception {
+        File inputFile = new File(getBasedir(), "src/test/changelog-xml/min-changelog.xml");
+
+        List<String> comments;
+        try (Stream<ChangeSet> changeSets = ChangeLog.streamChangedSets(Files.newInputStream(inputFile.toPath()))) {
+            comments = changeSets.map(ChangeSet::getComment).collect(Collectors.toList());
+        }
+
+        assertEquals(
+                "Test streamed change sets",
+                Arrays.asList("First commit msg", "Second commit msg", "Third commit msg", "Last commit msg"),
+                comments);
+    }
+
+    @Test
+    public void testPullFile() throws Exception {
+        File inputFile = new File(getBasedir(), "src/test/changelog-xml/min-changelog.xml");
+
+        try (ChangeLogReader reader = ChangeLogReader.open(Files.newInputStream(inputFile.toPath()))) {
+            ChangeLogSet set = reader.nextChangeLogSet();
+
+            assertNotNull("Test first changelog", set);
+
+            assertEquals("Test first changelog entry", "First commit msg", reader.nextChangeSet().getComment());
+
+            // the remaining entry of the first changelog is skipped
+            set = reader.nextChangeLogSet();
+
+            assertNotNull("Test second changelog", set);
+
+            assertEquals(
+                    "Test second changelog start",
+                    "2005-02-25",
+                    new SimpleDateFormat("yyyy-MM-dd").format(set.getStartDate()));
+
+            assertEquals("Test second changelog entry 1", "Third commit msg", reader.nextChangeSet().getComment());
+
+            assertEquals("Test second changelog entry 2", "Last commit msg", reader.nextChangeSet().getComment());
+
+            assertNull("Test end of second changelog", reader.nextChangeSet());
+
+            assertNull("Test end of document", reader.nextChangeLogSet());
+        }
+    }
+
+    @Test
+    public void testStreamMalformedFile() throws Exception {
+        String xml = "<changelog>\n"
+                + "  <changeset start=\"2005-02-24\" end=\"2005-02-25\">\n"
+                + "    <changelog-entry>\n"
+                + "      <date>24/02/2005</date>\n"
+                + "    </changelog-entry>\n"
+                + "  </changeset>\n"
+                + "</changelog>";
+
+        try (Stream<ChangeSet> changeSets = ChangeLog.streamChangedSets(new StringReader(xml))) {
+            changeSets.count();
+            fail("Test malformed date");
+        } catch (UncheckedIOException e) {
+            assertTrue("Test malformed date cause", e.getCause() instanceof IOException);
+        }
+
+        try (ChangeLogReader reader = ChangeLogReader.open(new StringReader(xml))) {
+            assertNotNull("Test changelog of malformed date", reader.nextChangeLogSet());
+            reader.nextChangeSet();
+            fail("Test malformed date");
+        } catch (IOException e) {
+            assertNotNull("Test malformed date message", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadCustomPatterns() throws Exception {
+        String xml = "<changelog>\n"
+                + "  <changeset datePattern=\"yyyyMMdd HH:mm:ss z\" start=\"20050224 10:00:00 GMT\">\n"
+                + "    <changelog-entry>\n"
+                + "      <date pattern=\"dd/MM/yyyy\">24/02/2005</date>\n"
+                + "      <time pattern=\"HH.mm.ss\">21.30.00</time>\n"
+                + "      <author>Edwin Punzalan</author>\n"
+                + "      <msg>Custom patterns</msg>\n"
+                + "    </changelog-entry>\n"
+                + "  </changeset>\n"
+                + "</changelog>";
+
+        List<ChangeLogSet> changedLogs = ChangeLog.loadChangedSets(new StringReader(xml));
+
+        SimpleDateFormat start = new SimpleDateFormat("yyyyMMdd HH:mm:ss z");
+
+        assertEquals(
+                "Test changelog start",
+                start.parse("20050224 10:00:00 GMT"),
+                changedLogs.get(0).getStartDate());
+
+        assertEquals(
+                "Test changelog entry date/time",
+                "2005-02-24 21:30:00",
+                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss")
+                        .format(changedLogs.get(0).getChangeSets().get(0).getDate()));
+    }
+
+    @Test
+    public void testReadAbbreviatedYears() throws Exception {
+        // SimpleDateFormat reads one and two letter years relative to the century
+        assertTrue(ChangeLogHandler.isNumericPattern("yyyy-MM-dd"));
+        assertTrue(ChangeLogHandler.isNumericPattern("yyy-MM-dd"));
+        assertFalse(ChangeLogHandler.isNumericPattern("yy-MM-dd"));
+        assertFalse(ChangeLogHandler.isNumericPattern("y-MM-dd"));
+
+        for (String pattern : new String[] {"y-MM-dd", "yy-MM-dd"}) {
+            assertEquals(
+                    "Test year of " + pattern,
+                    new SimpleDateFormat(pattern).parse("05-02-24"),
+                    ChangeLogHandler.addDate(null, pattern, "05-02-24"));
+        }
+    }
+
+    @Test
+    public void testReadLargeFile() throws Exception {
+        int entries = 20000;
+        String message = ChangeLogBenchmark.message(50000);
+
+        List<ChangeLogSet> changedLogs =
+                ChangeLog.loadChangedSets(new StringReader(ChangeLogBenchmark.generate(entries, 50000)));
+
+        assertEquals("Test number of changelog sets", 1, changedLogs.size());
+
+        List<ChangeSet> changeSets = changedLogs.get(0).getChangeSets();
+
+        assertEquals("Test number of entries", entries, changeSets.size());
+
+        assertEquals("Test long message", message, changeSets.get(0).getComment());
+
+        ChangeSet last = changeSets.get(entries - 1);
+
+        assertEquals("Test last author", "author9", last.getAuthor());
+
+        assertEquals("Test last msg", "commit " + (entries - 1), last.getComment());
+
+        assertEquals("Test last file", "/path/to/file" + (entries - 1), last.getFiles().get(0).getName());
+    }
+
+    @Test
+    public void testReadTimeScalesLinearly() throws Exception {
+        // a quadratic step takes 16 times as long for 4 times the input, the bound leaves room for a noisy machine
+        ChangeLogBenchmark.time(ChangeLogBenchmark.generate(20000, 20000), 2);
+
+        long entries = ChangeLogBenchmark.time(ChangeLogBenchmark.generate(10000, 0), 3);
+        long entries4 = ChangeLogBenchmark.time(ChangeLogBenchmark.generate(40000, 0), 3);
+        assertTrue("Test read time of 4 times the entries: " + entries4 / (double) entries, entries4 < 10 * entries);
+
+        long message = ChangeLogBenchmark.time(ChangeLogBenchmark.generate(1, 25000), 3);
+        long message4 = ChangeLogBenchmark.time(ChangeLogBenchmark.generate(1, 100000), 3);
+        assertTrue(
+                "Test read time of a 4 times longer message: " + message4 / (double) message, message4 < 10 * message);
+    }
+
+    @Test
+    public void testWriteFile() throws Exception {
+        List<ChangeLogSet> changedLogs = readChangeLogXml("min-changelog.xml");
+        changedLogs.get(1).setStartVersion(new ScmTag("1.0"));
+
+        StringBuilder expected = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<changelog>");
+        for (ChangeLogSet changedLog : changedLogs) {
+            String changeset = changedLog.toXML("UTF-8");
+            expected.append("\n  ").append(changeset.substring(changeset.indexOf("?>") + 2));
+        }
+        expected.append("\n</changelog>");
+
+        StringWriter writer = new StringWriter();
+        ChangeLog.writeChangedSets(changedLogs, "UTF-8", writer);
+
+        assertEquals(expected.toString(), writer.toString());
+    }
+
+    @Test
+    public void testReadFiltered() throws Exception {
+        File inputFile = new File(getBasedir(), "src/test/changelog-xml/min-changelog.xml");
+        ChangeSetFilter filter = new ChangeSetFilter(null, new String[] {"Keogh Edrich Punzalan"}, "^Second");
+
+        List<ChangeLogSet> changedLogs = ChangeLog.loadChangedSets(
+                new InputStreamReader(Files.newInputStream(inputFile.toPath()), StandardCharsets.UTF_8), filter);
+
+        assertEquals("Test number of changelog entries", 2, changedLogs.size());
+        assertEquals(1, changedLogs.get(0).getChangeSets().size());
+        assertEquals("First commit msg", changedLogs.get(0).getChangeSets().get(0).getComment());
+        assertEquals(0, changedLogs.get(1).getChangeSets().size());
+    }
+
     private List<ChangeLogSet> readChangeLogXml(String filename) throws Exception {
         File inputFile = new File(getBasedir(), "src/test/changelog-xml/" + filename);
         InputStream in = Files.newInputStream(inputFile.toPath());
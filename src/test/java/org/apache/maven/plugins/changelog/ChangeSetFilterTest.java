@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeSetFilterTest {
+    @Test
+    public void testAuthors() {
+        ChangeSetFilter filter = new ChangeSetFilter(new String[] {"dion", "bot"}, new String[] {"bot"}, null);
+
+        assertTrue(filter.isFiltering());
+        assertTrue(filter.acceptAuthor("dion"));
+        assertFalse(filter.acceptAuthor("bot"));
+        assertFalse(filter.acceptAuthor("edwin"));
+    }
+
+    @Test
+    public void testMessage() {
+        ChangeSetFilter filter = new ChangeSetFilter(null, null, "\\[maven-release-plugin\\]");
+
+        assertTrue(filter.acceptMessage("Fix the build"));
+        assertTrue(filter.acceptMessage(null));
+        assertFalse(filter.acceptMessage("[maven-release-plugin] prepare release 1.0"));
+        assertFalse(new ChangeSetFilter(null, new String[0], "").isFiltering());
+    }
+
+    @Test
+    public void testFilter() {
+        ChangeLogSet set = new ChangeLogSet(
+                new ArrayList<>(Arrays.asList(entry("dion", "Tidy up"), entry("bot", "Update dependencies"))),
+                new Date(0L),
+                new Date(1000L));
+
+        new ChangeSetFilter(null, new String[] {"bot"}, null).filter(set);
+
+        assertEquals(1, set.getChangeSets().size());
+        assertEquals("dion", set.getChangeSets().get(0).getAuthor());
+    }
+
+    private static ChangeSet entry(String author, String comment) {
+        ChangeSet entry = new ChangeSet();
+        entry.setAuthor(author);
+        entry.setComment(comment);
+        return entry;
+    }
+}
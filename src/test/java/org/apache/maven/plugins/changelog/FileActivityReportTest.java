@@ -19,8 +19,10 @@
 package org.apache.maven.plugins.changelog;
 
 import java.io.File;
+import java.util.Arrays;
 
 import org.apache.maven.plugins.changelog.stubs.ScmManagerStub;
+import org.apache.maven.project.MavenProject;
 import org.apache.maven.scm.manager.ScmManager;
 import org.codehaus.plexus.util.FileUtils;
 
@@ -62,6 +64,90 @@ public class FileActivityReportTest extends AbstractChangeLogReportTest {
         executeMojo("min-plugin-config.xml");
     }
 
+    public void testAggregate() throws Exception {
+        File root = new File(getBasedir(), "target/test-harness/aggregate/trunk");
+        new File(root, "core").mkdirs();
+
+        File outputXML = new File(root.getParentFile(), "changelog.xml");
+        FileUtils.fileWrite(
+                outputXML.getAbsolutePath(),
+                "ISO-8859-1",
+                "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n"
+                        + "<changelog>\n"
+                        + "  <changeset start=\"2005-02-24\" end=\"2005-02-26\">\n"
+                        + "    <changelog-entry>\n"
+                        + "      <date>2005-02-25</date>\n"
+                        + "      <time>10:00:00</time>\n"
+                        + "      <author>Edwin Punzalan</author>\n"
+                        + "      <file>\n"
+                        + "        <name>/trunk/core/src/main/java/Core.java</name>\n"
+                        + "        <revision>2</revision>\n"
+                        + "      </file>\n"
+                        + "      <file>\n"
+                        + "        <name>/trunk/docs/core/index.apt</name>\n"
+                        + "        <revision>2</revision>\n"
+                        + "      </file>\n"
+                        + "      <msg>Document the core</msg>\n"
+                        + "    </changelog-entry>\n"
+                        + "  </changeset>\n"
+                        + "</changelog>");
+
+        File pluginXmlFile =
+                new File(getBasedir(), "src/test/plugin-configs/file-activity/aggregate-plugin-config.xml");
+
+        FileActivityAggregateReport mojo =
+                (FileActivityAggregateReport) lookupMojo("file-activity-aggregate", pluginXmlFile);
+
+        assertNotNull("Mojo found.", mojo);
+
+        this.setVariableValueToObject(mojo, "manager", scmManager);
+
+        ((MavenProject) getVariableValueFromObject(mojo, "project")).setExecutionRoot(true);
+
+        this.setVariableValueToObject(
+                mojo,
+                "reactorProjects",
+                Arrays.asList(project(root, "parent"), project(new File(root, "core"), "core")));
+
+        mojo.execute();
+
+        File outputDir = (File) getVariableValueFromObject(mojo, "outputDirectory");
+
+        assertEquals("file-activity-aggregate", mojo.getOutputName());
+
+        File outputHtml = new File(outputDir, mojo.getOutputName() + ".html");
+
+        renderer(mojo, outputHtml);
+
+        assertTrue(outputHtml.getAbsolutePath() + " not generated!", outputHtml.exists());
+
+        String html = FileUtils.fileRead(outputHtml);
+
+        assertEquals("Test module of the core sources", "core", getModule(html, "Core.java"));
+
+        assertEquals("Test module of the core documentation", "parent", getModule(html, "index.apt"));
+    }
+
+    private static MavenProject project(File basedir, String artifactId) {
+        MavenProject project = new MavenProject();
+        project.setFile(new File(basedir, "pom.xml"));
+        project.setArtifactId(artifactId);
+        return project;
+    }
+
+    /**
+     * @return the text of the last cell of the row of the file in the html
+     */
+    private static String getModule(String html, String fileName) {
+        for (String row : html.split("</tr>")) {
+            if (row.contains(fileName)) {
+                String cell = row.substring(row.lastIndexOf("<td"));
+                return cell.substring(cell.indexOf('>') + 1, cell.indexOf("</td>")).trim();
+            }
+        }
+        return null;
+    }
+
     private void executeMojo(String pluginXml) throws Exception {
         File pluginXmlFile = new File(getBasedir(), "src/test/plugin-configs/file-activity/" + pluginXml);
 
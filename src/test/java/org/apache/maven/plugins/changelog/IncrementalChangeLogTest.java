@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class IncrementalChangeLogTest {
+    private static final long DAY = 86400000L;
+
+    @Test
+    public void testMergeNewestFirst() {
+        ChangeLogSet cached = new ChangeLogSet(
+                new ArrayList<>(Arrays.asList(entry(5 * DAY, "5"), entry(3 * DAY, "3"), entry(DAY, "1"))),
+                new Date(0),
+                new Date(5 * DAY));
+        // the provider reports the newest cached revision again, with a more precise date
+        ChangeLogSet fetched = new ChangeLogSet(
+                Arrays.asList(entry(7 * DAY, "7"), entry(6 * DAY, "6"), entry(5 * DAY + 3000, "5")),
+                new Date(5 * DAY),
+                new Date(7 * DAY));
+
+        assertEquals("5", IncrementalChangeLog.getNewestRevision(cached));
+
+        ChangeLogSet merged = IncrementalChangeLog.merge(cached, fetched, new Date(2 * DAY));
+
+        assertEquals(Arrays.asList("7", "6", "5", "3"), revisions(merged));
+        assertEquals(new Date(2 * DAY), merged.getStartDate());
+        assertEquals(new Date(7 * DAY), merged.getEndDate());
+    }
+
+    @Test
+    public void testMergeOldestFirst() {
+        ChangeLogSet cached = new ChangeLogSet(
+                new ArrayList<>(Arrays.asList(entry(DAY, "1"), entry(3 * DAY, "3"))), new Date(0), new Date(3 * DAY));
+        ChangeLogSet fetched = new ChangeLogSet(
+                Arrays.asList(entry(3 * DAY, "3"), entry(4 * DAY, "4")), new Date(3 * DAY), new Date(4 * DAY));
+
+        ChangeLogSet merged = IncrementalChangeLog.merge(cached, fetched, null);
+
+        assertEquals(Arrays.asList("1", "3", "4"), revisions(merged));
+        assertEquals(new Date(0), merged.getStartDate());
+    }
+
+    @Test
+    public void testMergeIntoEmptyCache() {
+        ChangeLogSet cached = new ChangeLogSet(new ArrayList<>(), new Date(0), new Date(3 * DAY));
+        ChangeLogSet fetched = new ChangeLogSet(
+                Collections.singletonList(entry(4 * DAY, "4")), new Date(3 * DAY), new Date(4 * DAY));
+
+        assertNull(IncrementalChangeLog.getNewestRevision(cached));
+
+        ChangeLogSet merged = IncrementalChangeLog.merge(cached, fetched, new Date(DAY));
+
+        assertEquals(Collections.singletonList("4"), revisions(merged));
+    }
+
+    @Test
+    public void testNewestRevisionIsNotTheNewestDate() {
+        // the watermark is the newest revision, whatever the dates of the change sets
+        ChangeLogSet cached = new ChangeLogSet(
+                new ArrayList<>(Arrays.asList(entry(2 * DAY, "12"), entry(3 * DAY, "11"), entry(DAY, "10"))),
+                new Date(0),
+                new Date(3 * DAY));
+
+        assertEquals("12", IncrementalChangeLog.getNewestRevision(cached));
+    }
+
+    @Test
+    public void testNewestRevisionWithoutNumericRevisions() {
+        ChangeLogSet cached = new ChangeLogSet(
+                new ArrayList<>(Arrays.asList(entry(2 * DAY, "a94a8fe5"), entry(DAY, "b5fe2a8c"))),
+                new Date(0),
+                new Date(3 * DAY));
+
+        assertNull(IncrementalChangeLog.getNewestRevision(cached));
+    }
+
+    private static ChangeSet entry(long date, String revision) {
+        ChangeSet entry = new ChangeSet();
+        entry.setDate(new Date(date));
+        entry.setAuthor("dion");
+        entry.setComment("commit " + revision);
+        entry.addFile(new ChangeFile("maven/project.xml", revision));
+        return entry;
+    }
+
+    private static List<String> revisions(ChangeLogSet set) {
+        List<String> revisions = new ArrayList<>();
+        for (ChangeSet entry : set.getChangeSets()) {
+            revisions.add(entry.getFiles().get(0).getRevision());
+        }
+        return revisions;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.ScmResult;
+import org.apache.maven.scm.command.changelog.ChangeLogScmResult;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.apache.maven.scm.provider.ScmProviderRepository;
+import org.apache.maven.scm.provider.svn.repository.SvnScmProviderRepository;
+import org.apache.maven.scm.repository.ScmRepository;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NarrowedChangeLogTest {
+    @Test
+    public void testCanNarrow() {
+        assertTrue(NarrowedChangeLog.canNarrow("git"));
+        assertTrue(NarrowedChangeLog.canNarrow("svn"));
+        assertFalse(NarrowedChangeLog.canNarrow("hg"));
+        assertFalse(NarrowedChangeLog.canNarrow("perforce"));
+    }
+
+    @Test
+    public void testSvnUrlOfEachRoot() throws Exception {
+        File workingCopy = Files.createTempDirectory("narrowed-change-log").toFile();
+        File basedir = new File(workingCopy, "modules/api");
+        new File(basedir, "src/main").mkdirs();
+        new File(basedir, "src/site").mkdirs();
+        Files.write(new File(basedir, "pom.xml").toPath(), new byte[0]);
+
+        SvnScmProviderRepository svnRepository =
+                new SvnScmProviderRepository("https://svn.example.org/project/trunk", "dion", "secret");
+        svnRepository.setTagBase("https://svn.example.org/project/tags");
+        ScmRepository repository = new ScmRepository("svn", svnRepository);
+
+        List<String> urls = new ArrayList<>();
+        List<File> basedirs = new ArrayList<>();
+        NarrowedChangeLog.changeLog(
+                repository,
+                workingCopy,
+                basedir,
+                Arrays.asList(new File("src/main"), new File("src/site"), new File("pom.xml")),
+                (narrowed, fileSet) -> {
+                    SvnScmProviderRepository provider = (SvnScmProviderRepository) narrowed.getProviderRepository();
+                    assertEquals("dion", provider.getUser());
+                    assertEquals("secret", provider.getPassword());
+                    assertEquals("https://svn.example.org/project/tags", provider.getTagBase());
+                    urls.add(provider.getUrl());
+                    basedirs.add(fileSet.getBasedir());
+                    return result();
+                });
+
+        assertEquals(
+                Arrays.asList(
+                        "https://svn.example.org/project/trunk/modules/api/src/main",
+                        "https://svn.example.org/project/trunk/modules/api/src/site",
+                        "https://svn.example.org/project/trunk/modules/api"),
+                urls);
+        assertEquals(
+                Arrays.asList(new File(basedir, "src/main"), new File(basedir, "src/site"), basedir), basedirs);
+    }
+
+    @Test
+    public void testGitDirectoryOfEachRoot() throws Exception {
+        File basedir = Files.createTempDirectory("narrowed-change-log").toFile();
+        new File(basedir, "src/main").mkdirs();
+        ScmRepository repository = new ScmRepository("git", new ScmProviderRepository() {});
+
+        List<File> basedirs = new ArrayList<>();
+        NarrowedChangeLog.changeLog(
+                repository, basedir, basedir, Collections.singletonList(new File("src/main")), (narrowed, fileSet) -> {
+                    assertSame(repository, narrowed);
+                    basedirs.add(fileSet.getBasedir());
+                    return result();
+                });
+
+        assertEquals(Collections.singletonList(new File(basedir, "src/main")), basedirs);
+    }
+
+    @Test
+    public void testWithoutRoots() throws Exception {
+        File basedir = new File("target/basedir");
+        ScmRepository repository = new ScmRepository("hg", new ScmProviderRepository() {});
+        ChangeLogScmResult result = result(entry("1", 1000L, "pom.xml"));
+
+        List<File> basedirs = new ArrayList<>();
+        assertSame(
+                result,
+                NarrowedChangeLog.changeLog(
+                        repository, basedir, basedir, Collections.emptyList(), (narrowed, fileSet) -> {
+                            assertSame(repository, narrowed);
+                            basedirs.add(fileSet.getBasedir());
+                            return result;
+                        }));
+
+        assertEquals(Collections.singletonList(basedir), basedirs);
+    }
+
+    @Test
+    public void testMerge() {
+        ChangeLogSet main = new ChangeLogSet(
+                new ArrayList<>(
+                        Arrays.asList(entry("3", 3000L, "src/main/A.java"), entry("1", 1000L, "src/main/B.java"))),
+                new Date(0L),
+                new Date(5000L));
+        ChangeLogSet site = new ChangeLogSet(
+                new ArrayList<>(
+                        Arrays.asList(entry("3", 3000L, "src/site/site.xml"), entry("2", 2000L, "src/site/a.md"))),
+                new Date(0L),
+                new Date(5000L));
+
+        ChangeLogSet merged = NarrowedChangeLog.merge(Arrays.asList(main, site));
+
+        List<String> revisions = new ArrayList<>();
+        for (ChangeSet entry : merged.getChangeSets()) {
+            revisions.add(entry.getRevision());
+        }
+        assertEquals(Arrays.asList("3", "2", "1"), revisions);
+
+        List<String> names = new ArrayList<>();
+        for (ChangeFile file : merged.getChangeSets().get(0).getFiles()) {
+            names.add(file.getName());
+        }
+        assertEquals(Arrays.asList("src/main/A.java", "src/site/site.xml"), names);
+        assertEquals(new Date(0L), merged.getStartDate());
+        assertEquals(new Date(5000L), merged.getEndDate());
+    }
+
+    private static ChangeLogScmResult result(ChangeSet... entries) {
+        ChangeLogSet changeLogSet = new ChangeLogSet(new ArrayList<>(Arrays.asList(entries)), null, null);
+        return new ChangeLogScmResult(changeLogSet, new ScmResult("svn log", null, null, true));
+    }
+
+    private static ChangeSet entry(String revision, long date, String name) {
+        ChangeSet entry = new ChangeSet();
+        entry.setRevision(revision);
+        entry.setDate(new Date(date));
+        entry.setAuthor("dion");
+        entry.setComment("commit " + revision);
+        entry.addFile(new ChangeFile(name, revision));
+        return entry;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Date;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class RangeCacheTest {
+    @Test
+    public void testKey() {
+        String key = RangeCache.key("tag", "scm:svn:http://svn", "1", "2");
+
+        assertEquals(key, RangeCache.key("tag", "scm:svn:http://svn", "1", "2"));
+        assertNotEquals(key, RangeCache.key("tag", "scm:svn:http://svn", "12", ""));
+        assertNotEquals(key, RangeCache.key("tag", "scm:svn:http://svn", "1", null));
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        RangeCache cache = new RangeCache(new File(System.getProperty("basedir"), "target/test-range-cache"));
+        String key = RangeCache.key("tag", "scm:svn:http://svn", "1", String.valueOf(System.nanoTime()));
+
+        assertNull(cache.get(key));
+
+        ChangeSet entry = new ChangeSet();
+        entry.setDate(new Date(1000L));
+        entry.setAuthor("dion");
+        entry.setComment("Tidy up");
+        entry.addFile(new ChangeFile("maven/project.xml", "1.2"));
+        cache.put(key, new ChangeLogSet(Collections.singletonList(entry), new Date(0L), new Date(2000L)));
+
+        ChangeLogSet cached = cache.get(key);
+        assertEquals(new Date(0L), cached.getStartDate());
+        assertEquals(new Date(2000L), cached.getEndDate());
+        assertEquals(1, cached.getChangeSets().size());
+        assertEquals("dion", cached.getChangeSets().get(0).getAuthor());
+        assertEquals("1.2", cached.getChangeSets().get(0).getFiles().get(0).getRevision());
+    }
+}
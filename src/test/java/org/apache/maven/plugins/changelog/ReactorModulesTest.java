@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReactorModulesTest {
+    private final ReactorModules modules = modules();
+
+    @Test
+    public void testGetModule() {
+        assertEquals("parent", modules.getModule("pom.xml"));
+        assertEquals("core", modules.getModule("core/src/main/java/Core.java"));
+        // svn reports the path in the repository
+        assertEquals("core", modules.getModule("/trunk/core/pom.xml"));
+        assertEquals("core-api", modules.getModule("/trunk/core/api/pom.xml"));
+        assertEquals("api", modules.getModule("api/pom.xml"));
+        // the directory coming first in the path wins over a package of the same name
+        assertEquals("core", modules.getModule("core/src/main/java/api/Api.java"));
+        assertEquals("parent", modules.getModule("src/site/site.xml"));
+        assertEquals("parent", modules.getModule("corely/pom.xml"));
+    }
+
+    @Test
+    public void testGetModuleAnchoredAtRoot() {
+        // a directory named like a module further down the path is not the module
+        assertEquals("parent", modules.getModule("/trunk/docs/core/index.apt"));
+        assertEquals("parent", modules.getModule("docs/core/index.apt"));
+        assertEquals("parent", modules.getModule("/branches/1.x/core/pom.xml"));
+        // the path of the svn url and of the work tree anchor the modules
+        assertEquals("core", modules.getModule("/repos/project/trunk/core/pom.xml"));
+        assertEquals("api", modules.getModule("/project/trunk/api/pom.xml"));
+        assertEquals("core", modules.getModule("/home/dev/workspace/core/pom.xml"));
+        assertEquals("core-api", modules.getModule("workspace/core/api/pom.xml"));
+    }
+
+    @Test
+    public void testGetUrlPath() {
+        assertEquals("/repos/project/trunk", ReactorModules.getUrlPath("scm:svn:http://localhost/repos/project/trunk"));
+        assertEquals("/repos/trunk", ReactorModules.getUrlPath("scm:svn:file:///repos/trunk"));
+        assertEquals("", ReactorModules.getUrlPath("scm:git:https://localhost"));
+        assertEquals("", ReactorModules.getUrlPath("scm:cvs:pserver:anonymous@localhost:/cvsroot:module"));
+    }
+
+    @Test
+    public void testGetModules() {
+        ChangeSet entry = new ChangeSet();
+        entry.addFile(new ChangeFile("api/pom.xml", "2"));
+        entry.addFile(new ChangeFile("core/pom.xml", "2"));
+        entry.addFile(new ChangeFile("core/src/main/java/Core.java", "2"));
+        entry.addFile(new ChangeFile("pom.xml", "2"));
+
+        assertEquals(Arrays.asList("parent", "core", "api"), modules.getModules(entry));
+    }
+
+    private static ReactorModules modules() {
+        Map<String, String> modules = new LinkedHashMap<>();
+        modules.put("core", "core");
+        modules.put("core/api", "core-api");
+        modules.put("api", "api");
+        return new ReactorModules(
+                "parent", modules, Arrays.asList("/home/dev/workspace", "/repos/project/trunk"));
+    }
+}
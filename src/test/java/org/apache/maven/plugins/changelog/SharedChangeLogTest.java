@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SharedChangeLogTest {
+    @Test
+    public void testGetWorkTree() throws Exception {
+        // outside of the work tree of the plugin itself
+        File workTree = Files.createTempDirectory("shared-change-log").toFile();
+        File module = new File(workTree, "modules/api");
+        module.mkdirs();
+
+        assertNull(SharedChangeLog.getWorkTree(module));
+
+        new File(workTree, ".git").mkdirs();
+        assertEquals(workTree.getAbsoluteFile(), SharedChangeLog.getWorkTree(module));
+    }
+
+    @Test
+    public void testGetOncePerBuild() throws Exception {
+        MavenProject topLevelProject = new MavenProject();
+        AtomicInteger fetches = new AtomicInteger();
+        List<ChangeLogSet> changeLogSets = Collections.emptyList();
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(changeLogSets, SharedChangeLog.get(topLevelProject, "key", () -> {
+                fetches.incrementAndGet();
+                return changeLogSets;
+            }));
+        }
+        SharedChangeLog.get(new MavenProject(), "key", () -> {
+            fetches.incrementAndGet();
+            return changeLogSets;
+        });
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void testSlice() {
+        ChangeSet both = entry("modules/api/pom.xml", "modules/impl/pom.xml", "pom.xml");
+        ChangeSet impl = entry("modules/impl/src/Impl.java");
+        ChangeSet api = entry("modules/api/src/Api.java", "modules/apix/src/Apix.java");
+        List<ChangeLogSet> changeLogSets = Collections.singletonList(
+                new ChangeLogSet(new ArrayList<>(Arrays.asList(both, impl, api)), new Date(0L), new Date(1000L)));
+
+        File workTree = new File("/work");
+        List<ChangeLogSet> slices =
+                SharedChangeLog.slice(changeLogSets, workTree, new File(workTree, "modules/api"));
+
+        assertEquals(1, slices.size());
+        assertEquals(new Date(0L), slices.get(0).getStartDate());
+        List<ChangeSet> entries = slices.get(0).getChangeSets();
+        assertEquals(2, entries.size());
+        assertEquals("modules/api/pom.xml", names(entries.get(0)));
+        assertEquals("modules/api/src/Api.java", names(entries.get(1)));
+        assertEquals("dion", entries.get(1).getAuthor());
+        assertEquals("Test the shared change set is untouched", 3, both.getFiles().size());
+
+        slices = SharedChangeLog.slice(changeLogSets, workTree, workTree);
+        assertEquals(3, slices.get(0).getChangeSets().size());
+    }
+
+    private static ChangeSet entry(String... names) {
+        ChangeSet entry = new ChangeSet();
+        entry.setDate(new Date(500L));
+        entry.setAuthor("dion");
+        entry.setComment("Tidy up");
+        for (String name : names) {
+            entry.addFile(new ChangeFile(name, "1"));
+        }
+        return entry;
+    }
+
+    private static String names(ChangeSet entry) {
+        StringBuilder names = new StringBuilder();
+        for (ChangeFile file : entry.getFiles()) {
+            names.append(names.length() > 0 ? "," : "").append(file.getName());
+        }
+        return names.toString();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.maven.scm.ChangeFile;
+import org.apache.maven.scm.ChangeSet;
+import org.apache.maven.scm.command.changelog.ChangeLogSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TagRangeSplitterTest {
+    private final List<ChangeSet> log = Arrays.asList(entry("10"), entry("12"), entry("15"), entry("20"), entry("21"));
+
+    @Test
+    public void testSelectAscending() {
+        assertEquals(Arrays.asList("10", "12", "15"), revisions(TagRangeSplitter.select(log, 10, 15)));
+        assertEquals(Arrays.asList("15", "20"), revisions(TagRangeSplitter.select(log, 15, 20)));
+    }
+
+    @Test
+    public void testSelectDescending() {
+        assertEquals(Arrays.asList("21", "20", "15"), revisions(TagRangeSplitter.select(log, 21, 13)));
+    }
+
+    @Test
+    public void testSelectWithoutRevisions() {
+        ChangeSet entry = new ChangeSet();
+        entry.addFile(new ChangeFile("pom.xml", "a94a8fe5"));
+
+        assertNull(TagRangeSplitter.select(Arrays.asList(entry("10"), entry), 10, 15));
+    }
+
+    @Test
+    public void testRevisionOfFiles() {
+        ChangeSet entry = new ChangeSet();
+        entry.addFile(new ChangeFile("pom.xml", "17"));
+
+        assertEquals(Long.valueOf(17), TagRangeSplitter.getRevision(entry));
+    }
+
+    @Test
+    public void testSplitLikeSeparateLogs() {
+        List<ChangeSet> entries = new ArrayList<>();
+        for (int revision = 10; revision <= 21; revision++) {
+            entries.add(entry(String.valueOf(revision), new Date(revision * 1000L)));
+        }
+        ChangeLogSet all = new ChangeLogSet(entries, new Date(0), new Date(100000));
+
+        String[] tags = {"10", "12", "15", "21"};
+        for (int i = 0; i < tags.length - 1; i++) {
+            long start = Long.parseLong(tags[i]);
+            long end = Long.parseLong(tags[i + 1]);
+
+            // the log of the pair on its own
+            List<ChangeSet> separate = new ArrayList<>();
+            for (ChangeSet entry : entries) {
+                long revision = Long.parseLong(entry.getRevision());
+                if (revision >= start && revision <= end) {
+                    separate.add(entry);
+                }
+            }
+
+            ChangeLogSet range = TagRangeSplitter.split(all, start, end);
+            assertEquals(revisions(separate), revisions(range.getChangeSets()));
+            assertEquals(new Date(start * 1000L), range.getStartDate());
+            assertEquals(new Date(end * 1000L), range.getEndDate());
+        }
+    }
+
+    @Test
+    public void testSplitEmptyRange() {
+        ChangeLogSet range = TagRangeSplitter.split(new ChangeLogSet(log, new Date(0), new Date(1)), 16, 19);
+
+        assertEquals(0, range.getChangeSets().size());
+        assertNull(range.getStartDate());
+        assertNull(range.getEndDate());
+    }
+
+    private static ChangeSet entry(String revision, Date date) {
+        ChangeSet entry = entry(revision);
+        entry.setDate(date);
+        return entry;
+    }
+
+    private static ChangeSet entry(String revision) {
+        ChangeSet entry = new ChangeSet();
+        entry.setRevision(revision);
+        return entry;
+    }
+
+    private static List<String> revisions(List<ChangeSet> entries) {
+        List<String> revisions = new ArrayList<>();
+        for (ChangeSet entry : entries) {
+            revisions.add(entry.getRevision());
+        }
+        return revisions;
+    }
+}
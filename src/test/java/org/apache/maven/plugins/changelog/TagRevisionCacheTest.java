@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TagRevisionCacheTest {
+    @Test
+    public void testSharedWithinBuild() {
+        MavenProject topLevelProject = new MavenProject();
+        String tagUrl = "http://svn/tags/shared";
+
+        assertNull(cache(null, topLevelProject).get(tagUrl));
+
+        cache(null, topLevelProject).put(tagUrl, "1234");
+
+        assertEquals("1234", cache(null, topLevelProject).get(tagUrl));
+        assertNull(cache(null, new MavenProject()).get(tagUrl));
+    }
+
+    @Test
+    public void testStore() throws Exception {
+        File file = new File(System.getProperty("basedir"), "target/test-tag-revisions/" + System.nanoTime());
+        String tagUrl = "http://svn/tags/stored-" + System.nanoTime();
+
+        TagRevisionCache cache = cache(file, new MavenProject());
+        cache.load();
+        cache.store();
+        assertFalse("Test nothing to store", file.exists());
+
+        cache.put(tagUrl, "42");
+        cache.store();
+
+        Properties stored = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            stored.load(in);
+        }
+        assertEquals("42", stored.getProperty(tagUrl));
+    }
+
+    @Test
+    public void testListingReplacesStoredTags() throws Exception {
+        File file = new File(System.getProperty("basedir"), "target/test-tag-revisions/" + System.nanoTime());
+        String tagBase = "http://svn/tags-" + System.nanoTime();
+
+        TagRevisionCache previous = cache(file, new MavenProject());
+        previous.put(tagBase + "/kept", "10");
+        previous.put(tagBase + "/moved", "11");
+        previous.put(tagBase + "/deleted", "12");
+        previous.store();
+
+        TagRevisionCache cache = cache(file, new MavenProject());
+        cache.load();
+        assertFalse(cache.isListed(tagBase));
+
+        Map<String, String> listing = new HashMap<>();
+        listing.put(tagBase + "/kept", "10");
+        listing.put(tagBase + "/moved", "20");
+        cache.putListing(tagBase, listing);
+        cache.store();
+
+        assertTrue(cache.isListed(tagBase));
+        assertEquals("10", cache.get(tagBase + "/kept"));
+        assertEquals("20", cache.get(tagBase + "/moved"));
+        assertNull(cache.get(tagBase + "/deleted"));
+
+        Properties stored = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            stored.load(in);
+        }
+        assertEquals("20", stored.getProperty(tagBase + "/moved"));
+        assertNull(stored.getProperty(tagBase + "/deleted"));
+    }
+
+    @Test
+    public void testStoreKeepsOtherBuilds() throws Exception {
+        File file = new File(System.getProperty("basedir"), "target/test-tag-revisions/" + System.nanoTime());
+
+        TagRevisionCache build0 = cache(file, new MavenProject());
+        TagRevisionCache build1 = cache(file, new MavenProject());
+        build0.load();
+        build1.load();
+
+        build0.put("http://svn/tags/first", "1");
+        build1.put("http://svn/tags/second", "2");
+        build0.store();
+        build1.store();
+
+        Properties stored = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            stored.load(in);
+        }
+        assertEquals("1", stored.getProperty("http://svn/tags/first"));
+        assertEquals("2", stored.getProperty("http://svn/tags/second"));
+    }
+
+    private static TagRevisionCache cache(File file, MavenProject topLevelProject) {
+        return new TagRevisionCache(file, TagRevisionCache.Resolutions.of(topLevelProject));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.changelog.scm.provider.svn.svnexe.command.info;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SvnListTagsConsumerTest {
+    @Test
+    public void testTagRevisions() throws Exception {
+        SvnListTagsConsumer consumer = new SvnListTagsConsumer();
+        String[] lines = {
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+            "<lists>",
+            "<list",
+            "   path=\"https://svn.apache.org/repos/asf/maven/plugins/tags\">",
+            "<entry",
+            "   kind=\"dir\">",
+            "<name>maven-changelog-plugin-2.2</name>",
+            "<commit",
+            "   revision=\"1051217\">",
+            "<author>dennisl</author>",
+            "<date>2010-12-20T17:43:33.459541Z</date>",
+            "</commit>",
+            "</entry>",
+            "<entry",
+            "   kind=\"file\">",
+            "<name>README.txt</name>",
+            "<size>42</size>",
+            "<commit",
+            "   revision=\"1051300\">",
+            "<author>dennisl</author>",
+            "<date>2010-12-20T20:00:00.000000Z</date>",
+            "</commit>",
+            "</entry>",
+            "<entry",
+            "   kind=\"dir\">",
+            "<name>maven-changelog-plugin-2.3</name>",
+            "<commit",
+            "   revision=\"1695412\">",
+            "<author>dennisl</author>",
+            "<date>2015-08-12T07:48:33.102436Z</date>",
+            "</commit>",
+            "</entry>",
+            "</list>",
+            "</lists>"
+        };
+        for (String line : lines) {
+            consumer.consumeLine(line);
+        }
+
+        Map<String, String> tagRevisions = consumer.getTagRevisions();
+
+        assertEquals(2, tagRevisions.size());
+        assertEquals("1051217", tagRevisions.get("maven-changelog-plugin-2.2"));
+        assertEquals("1695412", tagRevisions.get("maven-changelog-plugin-2.3"));
+    }
+}